@@ -0,0 +1,44 @@
+package edu.macalester.conceptual;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Identifies the build of the puzzle generator, as recorded in <code>git.properties</code> at
+ * build time. Puzzle output is a pure function of the puzzle code, the output options, and this
+ * version.
+ *
+ * @param commitID      Full hash of the commit the generator was built from
+ * @param abbrevCommitID  Short form of the commit hash, for display
+ * @param commitTime    Commit timestamp, for display
+ * @param dirty         True if the build included uncommitted changes, in which case the commit
+ *                      does not fully identify the generator’s behavior
+ */
+public record GeneratorVersion(
+    String commitID,
+    String abbrevCommitID,
+    String commitTime,
+    boolean dirty
+) {
+    private static GeneratorVersion current;
+
+    /**
+     * The version of the currently running generator.
+     */
+    public static synchronized GeneratorVersion current() {
+        if (current == null) {
+            var properties = new Properties();
+            try (var stream = GeneratorVersion.class.getResourceAsStream("/git.properties")) {
+                properties.load(stream);
+            } catch(IOException e) {
+                throw new RuntimeException(e);
+            }
+            current = new GeneratorVersion(
+                properties.getProperty("git.commit.id"),
+                properties.getProperty("git.commit.id.abbrev"),
+                properties.getProperty("git.commit.time"),
+                properties.getProperty("git.dirty").equals("true"));
+        }
+        return current;
+    }
+}
@@ -1,18 +1,8 @@
 package edu.macalester.conceptual;
 
 import java.util.List;
-import java.util.function.Function;
 
 import edu.macalester.conceptual.context.PuzzleContext;
-import edu.macalester.conceptual.puzzles.ast.AstDrawingPuzzle;
-import edu.macalester.conceptual.puzzles.booleans.BooleansAndConditionalsPuzzle;
-import edu.macalester.conceptual.puzzles.classes.ClassDeclarationsPuzzle;
-import edu.macalester.conceptual.puzzles.closures.ClosuresPuzzle;
-import edu.macalester.conceptual.puzzles.loops.LoopPuzzle;
-import edu.macalester.conceptual.puzzles.relationships.RelationshipsPuzzle;
-import edu.macalester.conceptual.puzzles.stack.StackAndHeapPuzzle;
-import edu.macalester.conceptual.puzzles.types.StaticAndRuntimeTypesPuzzle;
-import edu.macalester.conceptual.puzzles.vars.VariablesPuzzle;
 
 /**
  * A single conceptual puzzle type. Note that one instance of this class is a puzzle <i>type</i>,
@@ -20,27 +10,22 @@ import edu.macalester.conceptual.puzzles.vars.VariablesPuzzle;
  * generate many distinct AST Drawing puzzles given different <code>PuzzleContext</code> objects
  * containing different random seeds.
  * <p>
- * The <code>ALL</code> constant in this class serves as the central repository of available puzzle
- * types. To make a new puzzle type available, add it to that list.
+ * {@link PuzzleRegistry} serves as the central repository of available puzzle types. To make a new
+ * puzzle type available, add a descriptor for it there.
  */
 public interface Puzzle {
     /**
      * All available puzzle types. Anything listed here will show up as an option in the CLI.
      * We create new puzzles instances from scratch every time this method is called to prevent
      * state pollution when generating multiple puzzles in succession.
+     * <p>
+     * This loads every puzzle implementation. Code that only needs puzzle metadata should use
+     * {@link PuzzleRegistry#all()} instead.
      */
     static List<Puzzle> all() {
-        return List.of(
-            new AstDrawingPuzzle(),
-            new BooleansAndConditionalsPuzzle(),
-            new LoopPuzzle(),
-            new ClassDeclarationsPuzzle(),
-            new StackAndHeapPuzzle(),
-            new VariablesPuzzle(),
-            new RelationshipsPuzzle(),
-            new StaticAndRuntimeTypesPuzzle(),
-            new ClosuresPuzzle()
-        );
+        return PuzzleRegistry.all().stream()
+            .map(PuzzleDescriptor::create)
+            .toList();
     }
 
     /**
@@ -102,36 +87,22 @@ public interface Puzzle {
     void generate(PuzzleContext ctx);
 
     /**
-     * Finds the unique <code>Puzzle</code> whose <code>id()</code> matches <code>id</code>, or
-     * null if no such puzzle exists. Raises an error if there are duplicate puzzle IDs.
+     * Returns a new instance of the <code>Puzzle</code> whose <code>id()</code> matches
+     * <code>id</code>, or null if no such puzzle exists.
      */
     static Puzzle findByID(byte id) {
-        return find(id, Puzzle::id, "id");
+        return create(PuzzleRegistry.findByID(id));
     }
 
     /**
-     * Finds the unique <code>Puzzle</code> whose <code>name()</code> matches <code>name</code>, or
-     * null if no such puzzle exists. Raises an error if there are duplicate puzzle names.
+     * Returns a new instance of the <code>Puzzle</code> whose <code>name()</code> matches
+     * <code>name</code>, or null if no such puzzle exists.
      */
     static Puzzle findByName(String name) {
-        return find(name, Puzzle::name, "name");
+        return create(PuzzleRegistry.findByName(name));
     }
 
-    private static <T> Puzzle find(T target, Function<Puzzle,T> property, String propertyName) {
-        List<Puzzle> results = Puzzle.all().stream()
-            .filter(puzzle -> property.apply(puzzle).equals(target))
-            .toList();
-
-        if (results.isEmpty()) {
-            return null;
-        }
-
-        if (results.size() > 1) {
-            throw new AssertionError(
-                "Multiple puzzles have " + propertyName + "=" + target
-                + ", which should be unique: " + results);
-        }
-
-        return results.get(0);
+    private static Puzzle create(PuzzleDescriptor descriptor) {
+        return descriptor == null ? null : descriptor.create();
     }
 }
@@ -0,0 +1,57 @@
+package edu.macalester.conceptual;
+
+import java.util.function.Supplier;
+
+/**
+ * Static metadata about a puzzle type, available without loading the puzzle’s implementation (and
+ * everything it depends on). See {@link PuzzleRegistry}.
+ * <p>
+ * The metadata here duplicates the corresponding methods of {@link Puzzle}, and must match them.
+ * (<code>PuzzleRegistryTest</code> checks this.)
+ *
+ * @param id            See {@link Puzzle#id()}
+ * @param name          See {@link Puzzle#name()}
+ * @param description   See {@link Puzzle#description()}
+ * @param visible       See {@link Puzzle#isVisible()}
+ * @param minDifficulty See {@link Puzzle#minDifficulty()}
+ * @param goalDifficulty See {@link Puzzle#goalDifficulty()}
+ * @param maxDifficulty See {@link Puzzle#maxDifficulty()}
+ * @param factory       Creates a new instance of the puzzle. This is the only part of the
+ *                      descriptor that loads the implementation class.
+ */
+public record PuzzleDescriptor(
+    byte id,
+    String name,
+    String description,
+    boolean visible,
+    byte minDifficulty,
+    byte goalDifficulty,
+    byte maxDifficulty,
+    Supplier<Puzzle> factory
+) {
+    /**
+     * Describes a visible puzzle type.
+     */
+    static PuzzleDescriptor of(
+        int id,
+        String name,
+        String description,
+        int minDifficulty,
+        int goalDifficulty,
+        int maxDifficulty,
+        Supplier<Puzzle> factory
+    ) {
+        return new PuzzleDescriptor(
+            (byte) id, name, description, true,
+            (byte) minDifficulty, (byte) goalDifficulty, (byte) maxDifficulty,
+            factory);
+    }
+
+    /**
+     * Returns a new instance of this puzzle type. Puzzle instances may hold state from generating a
+     * puzzle, so each puzzle generated should use a fresh one.
+     */
+    public Puzzle create() {
+        return factory.get();
+    }
+}
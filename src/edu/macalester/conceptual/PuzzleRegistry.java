@@ -0,0 +1,114 @@
+package edu.macalester.conceptual;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import edu.macalester.conceptual.puzzles.ast.AstDrawingPuzzle;
+import edu.macalester.conceptual.puzzles.booleans.BooleansAndConditionalsPuzzle;
+import edu.macalester.conceptual.puzzles.classes.ClassDeclarationsPuzzle;
+import edu.macalester.conceptual.puzzles.closures.ClosuresPuzzle;
+import edu.macalester.conceptual.puzzles.loops.LoopPuzzle;
+import edu.macalester.conceptual.puzzles.relationships.RelationshipsPuzzle;
+import edu.macalester.conceptual.puzzles.stack.StackAndHeapPuzzle;
+import edu.macalester.conceptual.puzzles.types.StaticAndRuntimeTypesPuzzle;
+import edu.macalester.conceptual.puzzles.vars.VariablesPuzzle;
+
+/**
+ * The central repository of available puzzle types. To make a new puzzle type available, add a
+ * descriptor for it to <code>ALL</code>.
+ * <p>
+ * Descriptors carry the metadata the CLI needs for listing puzzles and decoding puzzle codes, so
+ * that commands like <code>list</code> don’t have to load every puzzle implementation (and with
+ * them, JavaParser and the graphics library). A puzzle’s classes load only when its descriptor’s
+ * factory runs.
+ */
+public enum PuzzleRegistry {
+    ; // static utility class; no cases
+
+    // Each entry: id, name, description / min, goal, and max difficulty / implementation
+    //
+    // Factories must be lambdas, not constructor references: `Foo::new` loads Foo as soon as the
+    // list is built, whereas `() -> new Foo()` defers it until the lambda runs.
+    private static final List<PuzzleDescriptor> ALL = List.of(
+        PuzzleDescriptor.of(
+            2, "ast", "Drawing ASTs for expressions",
+            0, 2, 50,
+            () -> new AstDrawingPuzzle()),
+        PuzzleDescriptor.of(
+            1, "bool", "Booleans and conditionals",
+            0, 1, 50,
+            () -> new BooleansAndConditionalsPuzzle()),
+        PuzzleDescriptor.of(
+            0, "loop", "While loops and for loops",
+            1, 3, 4,
+            () -> new LoopPuzzle()),
+        PuzzleDescriptor.of(
+            8, "class", "Class declarations and object modeling",
+            0, 2, 100,
+            () -> new ClassDeclarationsPuzzle()),
+        PuzzleDescriptor.of(
+            9, "stack", "Stack frames and objects (like the Idea Lab activity)",
+            0, 1, 10,
+            () -> new StackAndHeapPuzzle()),
+        PuzzleDescriptor.of(
+            3, "vars", "Variable scope and lifetime",
+            0, 0, 0,
+            () -> new VariablesPuzzle()),
+        PuzzleDescriptor.of(
+            5, "rel", "Class relationships",
+            1, 3, 50,
+            () -> new RelationshipsPuzzle()),
+        PuzzleDescriptor.of(
+            6, "type", "Static and runtime types",
+            0, 0, 0,
+            () -> new StaticAndRuntimeTypesPuzzle()),
+        PuzzleDescriptor.of(
+            4, "clos", "Closures and event handling",
+            0, 0, 10,
+            () -> new ClosuresPuzzle())
+    );
+
+    private static final Map<Byte, PuzzleDescriptor> BY_ID = index(PuzzleDescriptor::id, "id");
+    private static final Map<String, PuzzleDescriptor> BY_NAME = index(PuzzleDescriptor::name, "name");
+
+    /**
+     * Descriptors for all available puzzle types, in the order the CLI lists them.
+     */
+    public static List<PuzzleDescriptor> all() {
+        return ALL;
+    }
+
+    /**
+     * Returns the descriptor whose <code>id</code> matches the given ID, or null if there is none.
+     */
+    public static PuzzleDescriptor findByID(byte id) {
+        return BY_ID.get(id);
+    }
+
+    /**
+     * Returns the descriptor whose <code>name</code> matches the given name, or null if there is
+     * none.
+     */
+    public static PuzzleDescriptor findByName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    private static <T> Map<T, PuzzleDescriptor> index(
+        Function<PuzzleDescriptor, T> property,
+        String propertyName
+    ) {
+        var index = new HashMap<T, PuzzleDescriptor>();
+        for (var descriptor : ALL) {
+            var target = property.apply(descriptor);
+            var existing = index.put(target, descriptor);
+            if (existing != null) {
+                throw new AssertionError(
+                    "Multiple puzzles have " + propertyName + "=" + target
+                    + ", which should be unique: " + existing + ", " + descriptor);
+            }
+        }
+        return Map.copyOf(index);
+    }
+}
@@ -1,20 +1,27 @@
 package edu.macalester.conceptual.cli;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.MessageFormat;
-import java.util.Properties;
 
-import com.google.common.io.Files;
 
+import edu.macalester.conceptual.GeneratorVersion;
 import edu.macalester.conceptual.Puzzle;
+import edu.macalester.conceptual.PuzzleDescriptor;
+import edu.macalester.conceptual.PuzzleRegistry;
 import edu.macalester.conceptual.context.ConsolePuzzlePrinter;
+import edu.macalester.conceptual.context.HtmlPuzzleBundle;
 import edu.macalester.conceptual.context.HtmlPuzzlePrinter;
 import edu.macalester.conceptual.context.InvalidPuzzleCodeException;
+import edu.macalester.conceptual.context.JsonPuzzlePrinter;
 import edu.macalester.conceptual.context.PuzzleContext;
+import edu.macalester.conceptual.server.PuzzleServer;
 
 /**
  * The main entry point for the puzzle command line interface. Typically invoked from the
@@ -62,9 +69,18 @@ public class CommandLine {
                     case "gen" -> {
                         generate(options);
                     }
+                    case "gen-batch" -> {
+                        generateBatch(options);
+                    }
                     case "solve" -> {
                         solve(options);
                     }
+                    case "solve-batch" -> {
+                        solveBatch(options);
+                    }
+                    case "serve" -> {
+                        serve(options);
+                    }
                     default -> options.usageError("Unknown command: " + command);
                 }
             } catch(Exception e) {
@@ -110,7 +126,8 @@ public class CommandLine {
             puzzle.id(),
             options.difficulty() != null
                 ? options.difficulty()
-                : puzzle.goalDifficulty());
+                : puzzle.goalDifficulty(),
+            options.features());
 
         applyOptionsToContext(options, ctx, puzzle, false);
         emitPuzzle(puzzle, ctx, options);
@@ -131,6 +148,71 @@ public class CommandLine {
         stdout.println("  " + executableName() + " solve " + ctx.getPuzzleCode());
     }
 
+    /**
+     * The number of near-duplicates in a row after which gen-batch concludes the puzzle type has
+     * run out of distinct puzzles.
+     */
+    private static final int MAX_CONSECUTIVE_DUPLICATES = 100;
+
+    private void generateBatch(PuzzleOptions options) throws IOException {
+        requireCommandArgs(2, options);
+        var puzzleName = options.commandAndArgs().get(1);
+        var descriptor = PuzzleRegistry.findByName(puzzleName);
+        if (descriptor == null) {
+            stderr.println("Unknown puzzle type: " + puzzleName);
+            stderr.println("Use `puzzle list` to see available options");
+            return;
+        }
+
+        int count = 0;
+        try {
+            count = Integer.parseInt(options.commandAndArgs().get(2));
+        } catch(NumberFormatException e) {
+            // handled below
+        }
+        if (count <= 0) {
+            options.usageError(
+                "The puzzle count must be a positive number: " + options.commandAndArgs().get(2));
+        }
+
+        byte difficulty = options.difficulty() != null
+            ? options.difficulty()
+            : descriptor.goalDifficulty();
+        if (difficulty < descriptor.minDifficulty() || difficulty > descriptor.maxDifficulty()) {
+            stderr.println("Illegal difficulty level: " + difficulty);
+            stderr.println("The `" + descriptor.name() + "` puzzle must have a difficulty in the range "
+                + descriptor.minDifficulty() + "..." + descriptor.maxDifficulty() + ".");
+            return;
+        }
+
+        // Each candidate is generated with its solution into a text-only printer, and only codes
+        // for puzzles that are not near-duplicates of earlier ones are printed
+        var filter = new NearDuplicateFilter();
+        int duplicates = 0, consecutiveDuplicates = 0;
+        while (filter.size() < count) {
+            var puzzle = descriptor.create();
+            var ctx = PuzzleContext.generate(descriptor.id(), difficulty, options.features());
+            var collector = new NearDuplicateFilter.TextCollector();
+            ctx.setOutput(collector);
+            ctx.enableSolution();
+            ctx.emitPuzzle(() -> puzzle.generate(ctx));
+
+            if (filter.addIfDistinct(collector.text(), ctx::isIdentifierAlreadyUsed)) {
+                stdout.println(ctx.getPuzzleCode());
+                consecutiveDuplicates = 0;
+            } else {
+                duplicates++;
+                if (++consecutiveDuplicates >= MAX_CONSECUTIVE_DUPLICATES) {
+                    stderr.println("Giving up: the last " + consecutiveDuplicates
+                        + " puzzles were all near-duplicates of earlier ones");
+                    break;
+                }
+            }
+        }
+        stderr.println("Generated " + filter.size() + " distinct puzzles"
+            + " (regenerated " + duplicates + " near-" + (duplicates == 1 ? "duplicate" : "duplicates") + ")");
+    }
+
     private void solve(PuzzleOptions options) throws InvalidPuzzleCodeException, IOException {
         requireCommandArgs(1, options);
         var ctx = PuzzleContext.fromPuzzleCode(options.commandAndArgs().get(1));
@@ -178,6 +260,83 @@ public class CommandLine {
         }
     }
 
+    private void solveBatch(PuzzleOptions options) throws IOException {
+        requireCommandArgs(1, options);
+        var htmlOutput = options.html();
+        if (htmlOutput == null) {
+            options.usageError("The 'solve-batch' command requires --html <file>");
+        }
+
+        var codesFile = Path.of(options.commandAndArgs().get(1));
+        try (
+            var codes = Files.lines(codesFile, StandardCharsets.UTF_8);
+            var bundle =
+                "-".equals(htmlOutput)
+                    ? new HtmlPuzzleBundle(stdout)
+                    : new HtmlPuzzleBundle(Path.of(htmlOutput), options.pageSize())
+        ) {
+            for (var code : (Iterable<String>) codes.map(String::strip)::iterator) {
+                if (code.isEmpty() || code.startsWith("#")) {
+                    continue;
+                }
+
+                PuzzleContext ctx;
+                try {
+                    ctx = PuzzleContext.fromPuzzleCode(code);
+                } catch(InvalidPuzzleCodeException | IllegalArgumentException e) {
+                    stderr.println("Skipping invalid puzzle code: " + code);
+                    continue;
+                }
+                var puzzle = Puzzle.findByID(ctx.getPuzzleID());
+                if (puzzle == null) {
+                    stderr.println("Skipping puzzle code for a puzzle type that no longer exists: " + code);
+                    continue;
+                }
+                if (ctx.getDifficulty() < puzzle.minDifficulty() || ctx.getDifficulty() > puzzle.maxDifficulty()) {
+                    stderr.println("Skipping puzzle code with illegal difficulty level "
+                        + ctx.getDifficulty() + ": " + code);
+                    continue;
+                }
+
+                var htmlPrinter = bundle.startPuzzle(code);
+                if (options.htmlAssets() != null) {
+                    enableImageAssets(htmlPrinter, options.htmlAssets(), htmlOutput);
+                }
+                ctx.setOutput(htmlPrinter);
+                ctx.enableSolution();
+                ctx.setPartsToShow(options.partsToShow());
+                ctx.setPuzzleTitle(puzzle.description() + ": Solution (" + code + ")");
+                try {
+                    emitPuzzle(puzzle, ctx, options);
+                } catch(RuntimeException e) {
+                    // A bug in one puzzle shouldn’t cost the user every solution after it
+                    bundle.discardPuzzle();
+                    stderr.println("Skipping puzzle code that failed to generate: " + code + " (" + e + ")");
+                }
+            }
+
+            if (!"-".equals(htmlOutput)) {
+                stdout.println("Wrote " + bundle.puzzleCount() + " solutions to " + bundle.pageCount()
+                    + (bundle.pageCount() == 1 ? " page" : " pages"));
+            }
+        }
+    }
+
+    private void serve(PuzzleOptions options) throws IOException {
+        requireCommandArgs(0, options);
+        var server = new PuzzleServer(options.port(), Runtime.getRuntime().availableProcessors());
+        server.start();
+
+        var baseURL = "http://localhost:" + server.port();
+        stdout.println("Serving puzzles at " + baseURL);
+        stdout.println();
+        stdout.println("  Puzzle:    " + baseURL + "/gen/<code>");
+        stdout.println("  Solution:  " + baseURL + "/solve/<code>");
+        stdout.println("  Metrics:   " + baseURL + "/metrics");
+        stdout.println();
+        stdout.println("Press ctrl-C to stop");
+    }
+
     private void applyOptionsToContext(
         PuzzleOptions options,
         PuzzleContext ctx,
@@ -206,6 +365,12 @@ public class CommandLine {
             solutionOutput && options.solutionHtml() != null
                 ? options.solutionHtml()
                 : options.html();
+        String jsonOutput = solutionOutput && options.solutionHtml() != null ? null : options.json();
+        if (htmlOutput != null && jsonOutput != null) {
+            // Check before opening either one, so that a rejected command doesn’t truncate files
+            options.usageError("Cannot use both --html and --json for the same output");
+        }
+
         if (htmlOutput != null) {
             var htmlPrinter =
                 "-".equals(htmlOutput)
@@ -214,9 +379,19 @@ public class CommandLine {
             if (!ctx.isSolutionEnabled()) {
                 htmlPrinter.enableCopyPasteObfuscation();
             }
+            if (options.htmlAssets() != null) {
+                enableImageAssets(htmlPrinter, options.htmlAssets(), htmlOutput);
+            }
             ctx.setOutput(htmlPrinter);
         }
 
+        if (jsonOutput != null) {
+            ctx.setOutput(
+                "-".equals(jsonOutput)
+                    ? new JsonPuzzlePrinter(stdout)
+                    : new JsonPuzzlePrinter(new FileOutputStream(jsonOutput)));
+        }
+
         if (options.saveCode() != null) {
             try (
                 var out = new PrintWriter(
@@ -234,13 +409,26 @@ public class CommandLine {
                     ctx.output().bulletList(
                         "Your name",
                         "Today’s date",
-                        "“Puzzle *" + Files.getNameWithoutExtension(options.saveCode())
+                        "“Puzzle *"
+                            + com.google.common.io.Files.getNameWithoutExtension(options.saveCode())
                             + "*” ← _Very important! We can't grade your submission without this!_");
                 });
             }
         }
     }
 
+    private void enableImageAssets(HtmlPuzzlePrinter htmlPrinter, String assetPath, String htmlOutput)
+        throws IOException {
+        var assetDir = Path.of(assetPath).toAbsolutePath();
+        var htmlDir =
+            "-".equals(htmlOutput)
+                ? Path.of("").toAbsolutePath()
+                : Path.of(htmlOutput).toAbsolutePath().getParent();
+        htmlPrinter.enableImageAssets(
+            assetDir,
+            htmlDir.relativize(assetDir).toString().replace(File.separatorChar, '/'));
+    }
+
     private void emitPuzzle(Puzzle puzzle, PuzzleContext ctx, PuzzleOptions options) throws IOException {
         ctx.emitPuzzle(() -> {
             for (int repeat = options.repeat(); repeat > 0; repeat--) {
@@ -268,19 +456,14 @@ public class CommandLine {
     }
 
     private void printVersion() {
-        var properties = new Properties();
-        try (var stream = CommandLine.class.getResourceAsStream("/git.properties")) {
-            properties.load(stream);
-        } catch(IOException e) {
-            throw new RuntimeException(e);
-        }
+        var version = GeneratorVersion.current();
         stdout.println("puzzle generator version:");
-        stdout.print("  commit: " + properties.get("git.commit.id.abbrev"));
-        if (properties.get("git.dirty").equals("true")) {
+        stdout.print("  commit: " + version.abbrevCommitID());
+        if (version.dirty()) {
             stdout.print(" + uncommitted changes");
         }
         stdout.println();
-        stdout.println("    date: " + properties.get("git.commit.time"));
+        stdout.println("    date: " + version.commitTime());
     }
 
     /**
@@ -298,13 +481,13 @@ public class CommandLine {
         stdout.println("Available puzzle types:");
         stdout.println();
 
-        int nameWidth = Puzzle.all().stream()
-            .map(Puzzle::name)
+        int nameWidth = PuzzleRegistry.all().stream()
+            .map(PuzzleDescriptor::name)
             .mapToInt(String::length)
             .max().orElse(0);
 
-        for (var puzzle : Puzzle.all()) {
-            if (puzzle.isVisible()) {
+        for (var puzzle : PuzzleRegistry.all()) {
+            if (puzzle.visible()) {
                 stdout.printf("  %-" + nameWidth + "s  %s",
                     puzzle.name(),
                     puzzle.description());
@@ -320,9 +503,12 @@ public class CommandLine {
         out.println(
             """
             Commands:
-              puzzle list           List available puzzle types
-              puzzle gen <type>     Generate a new puzzle
-              puzzle solve <code>   Print the solution to a puzzle
+              puzzle list                      List available puzzle types
+              puzzle gen <type>                Generate a new puzzle
+              puzzle gen-batch <type> <count>  Print codes for <count> distinct puzzles
+              puzzle solve <code>              Print the solution to a puzzle
+              puzzle solve-batch <file>        Print solutions to all puzzle codes in a file as HTML
+              puzzle serve                     Serve puzzles and solutions as web pages
             """);
     }
 
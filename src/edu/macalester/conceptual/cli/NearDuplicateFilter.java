@@ -0,0 +1,223 @@
+package edu.macalester.conceptual.cli;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import edu.macalester.conceptual.context.NullPuzzlePrinter;
+import edu.macalester.conceptual.util.LshIndex;
+import edu.macalester.conceptual.util.MinHash;
+import edu.macalester.graphics.GraphicsObject;
+
+/**
+ * Keeps batch generation from handing out puzzles that are effectively the same, i.e. that differ
+ * only in their nonsense names, or barely differ at all.
+ * <p>
+ * Each puzzle (with its solution) is reduced to its text, split into tokens, and normalized by
+ * replacing each generated nonsense word with a placeholder numbered by first appearance. That
+ * keeps the puzzle’s structure (including which names are the same as each other) while ignoring
+ * what the names are. Overlapping runs of tokens then become a {@link MinHash} signature, and an
+ * {@link LshIndex} finds any earlier puzzle whose signature is similar enough.
+ */
+class NearDuplicateFilter {
+    private static final int
+        SHINGLE_SIZE = 5,  // tokens per run
+        BANDS = 32,
+        ROWS = 4;
+    private static final double SIMILARITY_THRESHOLD = 0.8;
+
+    private final LshIndex index = new LshIndex(BANDS, ROWS);
+
+    /**
+     * Adds the puzzle to the set of accepted puzzles, unless it is a near-duplicate of one already
+     * accepted.
+     *
+     * @param text The puzzle’s output, as collected by a {@link TextCollector}
+     * @param isGeneratedWord Whether a lowercase word is a nonsense word the puzzle generated
+     * @return True if the puzzle was accepted
+     */
+    boolean addIfDistinct(String text, Predicate<String> isGeneratedWord) {
+        var signature = signature(normalizedTokens(text, isGeneratedWord));
+        if (index.findSimilar(signature, SIMILARITY_THRESHOLD) >= 0) {
+            return false;
+        }
+        index.add(signature);
+        return true;
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    static long[] signature(List<String> tokens) {
+        var tokenHashes = tokens.stream().mapToLong(MinHash::hash).toArray();
+        int shingleCount = Math.max(1, tokenHashes.length - SHINGLE_SIZE + 1);
+        var shingles = new long[shingleCount];
+        for (int start = 0; start < shingleCount; start++) {
+            long hash = 0;
+            for (int i = start; i < Math.min(start + SHINGLE_SIZE, tokenHashes.length); i++) {
+                hash = MinHash.combine(hash, tokenHashes[i]);
+            }
+            shingles[start] = hash;
+        }
+        return MinHash.signature(shingles, BANDS * ROWS);
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Normalization
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    /**
+     * Splits text into identifiers, numbers, and individual punctuation characters, ignoring
+     * whitespace, with generated words replaced by placeholders.
+     */
+    static List<String> normalizedTokens(String text, Predicate<String> isGeneratedWord) {
+        var tokens = new ArrayList<String>();
+        var placeholders = new HashMap<String, String>();
+        int n = text.length();
+        for (int start = 0; start < n; ) {
+            char c = text.charAt(start);
+            int end = start + 1;
+            if (Character.isLetter(c) || c == '_') {
+                while (end < n && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                    end++;
+                }
+                tokens.add(normalizedIdentifier(text.substring(start, end), isGeneratedWord, placeholders));
+            } else if (Character.isDigit(c)) {
+                while (end < n && Character.isDigit(text.charAt(end))) {
+                    end++;
+                }
+                tokens.add(text.substring(start, end));
+            } else if (!Character.isWhitespace(c)) {
+                tokens.add(String.valueOf(c));
+            }
+            start = end;
+        }
+        return tokens;
+    }
+
+    /**
+     * Replaces each generated word within an identifier (e.g. both halves of
+     * <code>fazzBleps</code> or <code>FAZZ_BLEP</code>) with its placeholder.
+     */
+    private static String normalizedIdentifier(
+        String ident,
+        Predicate<String> isGeneratedWord,
+        Map<String, String> placeholders
+    ) {
+        var result = new StringBuilder();
+        int n = ident.length();
+        for (int start = 0; start < n; ) {
+            int end = start + 1;
+            if (ident.charAt(start) != '_') {
+                while (end < n && !isWordBoundary(ident, end)) {
+                    end++;
+                }
+            }
+            var piece = ident.substring(start, end);
+            var word = generatedWord(piece.toLowerCase(), isGeneratedWord);
+            result.append(
+                word == null
+                    ? piece
+                    : placeholders.computeIfAbsent(word, w -> "#" + (placeholders.size() + 1)));
+            start = end;
+        }
+        return result.toString();
+    }
+
+    private static boolean isWordBoundary(String ident, int pos) {
+        char prev = ident.charAt(pos - 1), cur = ident.charAt(pos);
+        return cur == '_'
+            || prev == '_'
+            || Character.isDigit(prev) != Character.isDigit(cur)
+            || (Character.isLowerCase(prev) && Character.isUpperCase(cur))
+            || (Character.isUpperCase(prev) && Character.isUpperCase(cur)  // "ABCDef" → "ABC" "Def"
+                && pos + 1 < ident.length() && Character.isLowerCase(ident.charAt(pos + 1)));
+    }
+
+    /**
+     * Returns the generated word <code>piece</code> is made of (possibly pluralized), or null if
+     * it is not one.
+     */
+    private static String generatedWord(String piece, Predicate<String> isGeneratedWord) {
+        if (isGeneratedWord.test(piece)) {
+            return piece;
+        }
+        // Undo Nonsense.pluralize()
+        if (piece.endsWith("ses") && isGeneratedWord.test(piece.substring(0, piece.length() - 2))) {
+            return piece.substring(0, piece.length() - 2);
+        }
+        if (piece.endsWith("s") && isGeneratedWord.test(piece.substring(0, piece.length() - 1))) {
+            return piece.substring(0, piece.length() - 1);
+        }
+        return null;
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Collecting puzzle text
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    /**
+     * Records the text content of a puzzle, without any formatting.
+     */
+    static class TextCollector extends NullPuzzlePrinter {
+        private final StringBuilder text = new StringBuilder();
+
+        String text() {
+            return text.toString();
+        }
+
+        private void add(String str) {
+            if (!isSilenced()) {
+                text.append(str).append('\n');
+            }
+        }
+
+        @Override
+        public void title(String title) {
+            add(title);
+        }
+
+        @Override
+        public void heading(String text, boolean primary) {
+            add(text);
+        }
+
+        @Override
+        public void paragraph(String formatString, Object... formatArguments) {
+            add(MessageFormat.format(formatString, formatArguments));
+        }
+
+        @Override
+        public void bulletList(String... items) {
+            for (var item : items) {
+                add(item);
+            }
+        }
+
+        @Override
+        public void numberedList(String... items) {
+            for (var item : items) {
+                add(item);
+            }
+        }
+
+        @Override
+        public void blockquote(String s) {
+            add(s);
+        }
+
+        @Override
+        public void codeBlock(String javaCode) {
+            add(javaCode);
+        }
+
+        @Override
+        public void showGraphics(String title, GraphicsObject graphics) {
+            add(title);
+        }
+    }
+}
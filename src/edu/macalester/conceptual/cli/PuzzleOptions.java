@@ -1,6 +1,7 @@
 package edu.macalester.conceptual.cli;
 
 import java.io.PrintWriter;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -12,12 +13,14 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import edu.macalester.conceptual.context.GeneratorFeature;
+
 /**
  * Command-line flags for CommandLine.
  */
 class PuzzleOptions {
     private final Options options = new Options();
-    private final Option help, version, parts, repeat, difficulty, includeSolutions, html, solutionHtml, saveCode;
+    private final Option help, version, parts, repeat, difficulty, features, includeSolutions, html, json, solutionHtml, htmlAssets, pageSize, saveCode, port;
     private final org.apache.commons.cli.CommandLine cmd;
     private final String[] rawArgs;
 
@@ -27,10 +30,15 @@ class PuzzleOptions {
         parts = addOption("p", "parts", "i,j,...", "Show only parts with given numbers");
         repeat = addOption("r", "repeat", "num", "Generate <num> different puzzles");
         difficulty = addOption("d", "difficulty", "num", "Change puzzle difficulty from default");
+        features = addOption(null, "features", "f,g,...", "Generate new puzzles with opt-in generator features");
         includeSolutions = addOption("s", "include-solutions", "Show solutions immediately when generating puzzle");
         html = addOption(null, "html", "file", "Format output as HTML (`-` for stdout)");
         solutionHtml = addOption(null, "solution-html", "file", "Also emit solution as HTML");
+        json = addOption(null, "json", "file", "Format output as JSON events (`-` for stdout)");
+        htmlAssets = addOption(null, "html-assets", "dir", "Save HTML images as files in <dir>");
         saveCode = addOption(null, "save-code", "file", "Save puzzle code + metadata in file");
+        port = addOption(null, "port", "num", "Port for `serve` command (default 8127)");
+        pageSize = addOption(null, "page-size", "num", "Puzzles per page for `solve-batch` HTML");
         help = addOption(null, "help", "Display this message");
         version = addOption("v", "version", "Show puzzle generator version");
         options.addOption(parts);
@@ -69,6 +77,26 @@ class PuzzleOptions {
             : null;
     }
 
+    public Set<GeneratorFeature> features() {
+        var result = EnumSet.noneOf(GeneratorFeature.class);
+        if (!cmd.hasOption(features)) {
+            return result;
+        }
+
+        Pattern.compile(",")
+            .splitAsStream(cmd.getOptionValue(features))
+            .map(String::trim)
+            .forEach(name -> {
+                var feature = GeneratorFeature.fromOptionName(name);
+                if (feature == null) {
+                    usageError("Unknown generator feature: " + name
+                        + " (available features: " + GeneratorFeature.allOptionNames() + ")");
+                }
+                result.add(feature);
+            });
+        return result;
+    }
+
     public boolean includeSolutions() {
         return cmd.hasOption(includeSolutions);
     }
@@ -77,14 +105,48 @@ class PuzzleOptions {
         return cmd.getOptionValue(html);
     }
 
+    public String json() {
+        return cmd.getOptionValue(json);
+    }
+
     public String solutionHtml() {
         return cmd.getOptionValue(solutionHtml);
     }
 
+    public String htmlAssets() {
+        return cmd.getOptionValue(htmlAssets);
+    }
+
     public String saveCode() {
         return cmd.getOptionValue(saveCode);
     }
 
+    public int pageSize() {
+        return intOptionValue(pageSize, 0, 0, Integer.MAX_VALUE);
+    }
+
+    public int port() {
+        return intOptionValue(port, 8127, 0, 0xFFFF);
+    }
+
+    private int intOptionValue(Option option, int defaultValue, int min, int max) {
+        if (!cmd.hasOption(option)) {
+            return defaultValue;
+        }
+        var value = cmd.getOptionValue(option);
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= min && result <= max) {
+                return result;
+            }
+        } catch(NumberFormatException e) {
+            // handled below
+        }
+        usageError("--" + option.getLongOpt() + " must be a number in the range " + min + "..." + max
+            + ": " + value);
+        throw new Error();  // unreachable
+    }
+
     public Set<Integer> partsToShow() {
         if (!cmd.hasOption(parts)) {
             return null;
@@ -0,0 +1,52 @@
+package edu.macalester.conceptual.context;
+
+/**
+ * Color math for the puzzle printers, done on plain packed RGB ints. We avoid
+ * <code>java.awt.Color</code> here because its static initializer loads AWT and its native
+ * libraries, which text-only output never otherwise needs.
+ */
+enum Colors {
+    ; // static utility class; no cases
+
+    /**
+     * Converts HSB to packed <code>0xAARRGGBB</code>. Produces exactly the same result as
+     * <code>java.awt.Color.HSBtoRGB</code>, so puzzle colors are unchanged.
+     */
+    static int hsbToRGB(float hue, float saturation, float brightness) {
+        int r = 0, g = 0, b = 0;
+        if (saturation == 0) {
+            r = g = b = toByte(brightness);
+        } else {
+            float h = (hue - (float) Math.floor(hue)) * 6.0f;
+            float f = h - (float) Math.floor(h);
+            float p = brightness * (1.0f - saturation);
+            float q = brightness * (1.0f - saturation * f);
+            float t = brightness * (1.0f - (saturation * (1.0f - f)));
+            switch ((int) h) {
+                case 0 -> { r = toByte(brightness); g = toByte(t); b = toByte(p); }
+                case 1 -> { r = toByte(q); g = toByte(brightness); b = toByte(p); }
+                case 2 -> { r = toByte(p); g = toByte(brightness); b = toByte(t); }
+                case 3 -> { r = toByte(p); g = toByte(q); b = toByte(brightness); }
+                case 4 -> { r = toByte(t); g = toByte(p); b = toByte(brightness); }
+                case 5 -> { r = toByte(brightness); g = toByte(p); b = toByte(q); }
+            }
+        }
+        return 0xff000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private static int toByte(float component) {
+        return (int) (component * 255.0f + 0.5f);
+    }
+
+    static int red(int rgb) {
+        return (rgb >> 16) & 0xFF;
+    }
+
+    static int green(int rgb) {
+        return (rgb >> 8) & 0xFF;
+    }
+
+    static int blue(int rgb) {
+        return rgb & 0xFF;
+    }
+}
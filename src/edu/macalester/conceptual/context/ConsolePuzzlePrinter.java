@@ -22,8 +22,8 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
     private static boolean graphicsEnabled = true;
 
     private final PrintWriter out;
+    private final WordWrapper wrapper;
 
-    private int curColumn = 0, outputWidth;
     private boolean wordWrapEnabled = true;
     private String indent = "";
 
@@ -40,17 +40,25 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
             "  " + ansiCode('m', 39) + ansiCode('m', 49)));
 
     public ConsolePuzzlePrinter(PrintWriter writer) {
+        this(writer, new WordWrapper(writer, consoleWidth()));
+    }
+
+    ConsolePuzzlePrinter(PrintWriter writer, WordWrapper wrapper) {
         out = writer;
-        try {
-            outputWidth = Integer.parseInt(System.getenv("COLUMNS"));
-        } catch(Exception e) {
-            outputWidth = 80;
-        }
+        this.wrapper = wrapper;
 
         // Clear to end of screen, to mop up any dangling bits of gradle’s progress bar
         print(ansiCode('J', 0));
     }
 
+    private static int consoleWidth() {
+        try {
+            return Integer.parseInt(System.getenv("COLUMNS"));
+        } catch(Exception e) {
+            return 80;
+        }
+    }
+
     @Override
     public void close() {
         out.print(ansiCode('m', 0));  // restore normal colors
@@ -69,14 +77,20 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void dividerLine(boolean primary) {
+        if (isSilenced()) {
+            return;
+        }
         nowrap(() -> {
-            println((primary ? "─" : "┄").repeat(outputWidth));
+            println((primary ? "─" : "┄").repeat(wrapper.width()));
             println();
         });
     }
 
     @Override
     public void heading(String text, boolean primary) {
+        if (isSilenced()) {
+            return;
+        }
         var lines = new ArrayList<String>();
         String sideMargin = "   ";
         String center = sideMargin + text.toUpperCase() + sideMargin;
@@ -89,11 +103,11 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
             for (var line : lines) {
                 print(ansiCode('m', 1));  // bold
                 if (primary) {
-                    print(textColorCode(Color.BLACK, true));
-                    print(textColorCode(Color.getHSBColor(hue, 0.8f, 1), false));
+                    print(textColorCode(0x000000, true));
+                    print(textColorCode(Colors.hsbToRGB(hue, 0.8f, 1), false));
                 } else {
-                    print(textColorCode(Color.getHSBColor(hue, 0.6f, 1), true));
-                    print(textColorCode(Color.getHSBColor(hue, 0.5f, 0.2f), false));
+                    print(textColorCode(Colors.hsbToRGB(hue, 0.6f, 1), true));
+                    print(textColorCode(Colors.hsbToRGB(hue, 0.5f, 0.2f), false));
                 }
                 print(line);
                 resetAnsiStyling();
@@ -106,12 +120,18 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void paragraph(String formatString, Object... formatArguments) {
+        if (isSilenced()) {
+            return;
+        }
         printFormattedText(MessageFormat.format(formatString, formatArguments));
         println();
     }
 
     @Override
     public void bulletList(String... items) {
+        if (isSilenced()) {
+            return;
+        }
         for (String item : items) {
             nowrap(() -> print("  - "));
             indented("    ", () -> printFormattedText(item));
@@ -121,6 +141,9 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void numberedList(String... items) {
+        if (isSilenced()) {
+            return;
+        }
         numberedList(
             Arrays.stream(items)
                 .map(t -> (Runnable) () -> printFormattedText(t))
@@ -130,6 +153,10 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void numberedList(List<Runnable> items) {
+        if (isSilenced()) {
+            items.forEach(Runnable::run);  // items may have side effects beyond output
+            return;
+        }
         int n = 0;
         for (Runnable item : items) {
             var itemMarker = String.format("%2d. ", ++n);
@@ -141,6 +168,9 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void blockquote(String s) {
+        if (isSilenced()) {
+            return;
+        }
         indented("  │ ", () -> printFormattedText(s));
         println();
     }
@@ -151,6 +181,9 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void codeBlock(String javaCode) {
+        if (isSilenced()) {
+            return;
+        }
         nowrap(() -> {
             indented(() -> {
                 println(
@@ -177,6 +210,9 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void showGraphics(String title, GraphicsObject graphics) {
+        if (isSilenced()) {
+            return;
+        }
         paragraph(ansiCode('m', 3) + "<< See window titled “" + title + "” >>" + ansiCode('m', 23));
         out.flush();
 
@@ -241,52 +277,12 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
         print("\n");
     }
 
-    // Handles indentation and line break normalization
+    // Handles indentation, line break normalization, and word wrapping
     private void print(String str) {
         if (isSilenced()) {
             return;
         }
-
-        str = str.replace("\r\n", "\n"); // normalize Windows CRLF line breaks
-        for (String part : str.split("(?=\n)|(?<=\n)")) { // lines + terminators as separate matches
-            if (part.equals("\n")) {
-                newline();
-            } else {
-                var wrappingUnit = wordWrapEnabled
-                    ? part.split(" ")
-                    : new String[] { part };
-                boolean firstUnit = true;
-                for (var unit : wrappingUnit) {
-                    if (wordWrapEnabled && curColumn + visibleWidth(unit) >= outputWidth) {
-                        newline();
-                    }
-
-                    if (curColumn == 0) {
-                        out.print(indent);
-                        curColumn += indent.length();
-                    } else if (!firstUnit) {
-                        out.print(" ");
-                        curColumn++;
-                    }
-
-                    out.print(unit);
-
-                    curColumn += visibleWidth(unit);
-                    firstUnit = false;
-                }
-            }
-        }
-    }
-
-    private void newline() {
-        out.println();
-        curColumn = 0;
-    }
-
-    private int visibleWidth(String word) {
-        return word
-            .replaceAll("\u001b\\[[0-9;]*[a-z]", "")
-            .length();
+        wrapper.print(str, indent, wordWrapEnabled);
     }
 
     private void nowrap(Runnable block) {
@@ -311,23 +307,23 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
         this.hue = ((hue % 1) + 1) % 1;
     }
 
-    private String textColorCode(Color color, boolean foreground) {
+    private String textColorCode(int rgb, boolean foreground) {
         String terminalColorMode = System.getenv("COLORTERM");
         if (terminalColorMode != null && terminalColorMode.matches("truecolor|24bit")) {
             // 24-bit (true color) ANSI code
             // Only some terminals support it (VS Code = yes, Apple Terminal = no)
             return ansiCode('m',
                 foreground ? 38 : 48, 2,
-                color.getRed(), color.getGreen(), color.getBlue());
+                Colors.red(rgb), Colors.green(rgb), Colors.blue(rgb));
         } else {
             // 256-color ANSI code: better compatibility
             return ansiCode(
                 'm',
                 foreground ? 38 : 48,
                 5,
-                16  + scale256To6(color.getBlue())
-                    + scale256To6(color.getGreen()) * 6
-                    + scale256To6(color.getRed()) * 36);
+                16  + scale256To6(Colors.blue(rgb))
+                    + scale256To6(Colors.green(rgb)) * 6
+                    + scale256To6(Colors.red(rgb)) * 36);
         }
     }
 
@@ -347,7 +343,7 @@ public class ConsolePuzzlePrinter implements PuzzlePrinter {
         for(float b = 0; b < 1; b += 0.2) {
             for(float s = 0; s < 1; s += 0.03) {
                 for(float h = 0; h < 1; h += 0.02) {
-                    out.print(textColorCode(Color.getHSBColor(h, s, b), false));
+                    out.print(textColorCode(Colors.hsbToRGB(h, s, b), false));
                     out.print(' ');
                 }
                 resetAnsiStyling();
@@ -0,0 +1,155 @@
+package edu.macalester.conceptual.context;
+
+import java.util.Random;
+
+/**
+ * Scatters hidden junk through HTML-escaped code so that text copied out of the page is garbled.
+ * Each obfuscation is an invisible element (see the <code>hidden-warning</code> CSS class) that
+ * holds either a random character or a stern warning.
+ * <p>
+ * Obfuscation never goes inside:
+ * <ul>
+ *   <li><code>/* comments *&#47;</code> (including <code>/*___placeholders___*&#47;</code>),</li>
+ *   <li><code>___placeholders___</code>,</li>
+ *   <li><code>&amp;entities;</code>, or</li>
+ *   <li><code>&amp;#numeric;</code> entities.</li>
+ * </ul>
+ * Everything else is one token per character, and each token (plus the end of the text) gets a
+ * chance of obfuscation in front of it. The tokenization and random number consumption match the
+ * regex <code>/\*.*?\*&#47;|___\w+___|&amp;#?\w+;|.|\n|$</code>, which this class replaced; the
+ * output for a given random seed must not change, or previously generated puzzle pages would not
+ * be reproducible.
+ */
+enum CopyPasteObfuscation {
+    ; // static utility class; no cases
+
+    private static final String
+        OBFUSCATION_START = "<div class='hidden-warning' aria-hidden='true'>",
+        OBFUSCATION_END = "</div>",
+        WARNING = " Remember: using the computer to help is strictly prohibited"
+            + " for official attempts! The answer has to come from your own head. ";
+
+    /**
+     * Returns the given HTML with obfuscation inserted.
+     */
+    static String obfuscate(CharSequence html, Random rand) {
+        var out = new StringBuilder(html.length() * 3);
+        obfuscate(html, rand, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the given HTML to <code>out</code> with obfuscation inserted.
+     */
+    static void obfuscate(CharSequence html, Random rand, StringBuilder out) {
+        int n = html.length();
+        int start = 0;
+        while (start < n) {
+            char c = html.charAt(start);
+            if (isLineTerminator(c) && c != '\n') {
+                // Regex . doesn’t match these, so they aren’t tokens — except that $ matches just
+                // before a line break that ends the text.
+                if (start == n - 1 || (start == n - 2 && c == '\r' && html.charAt(n - 1) == '\n')) {
+                    maybeObfuscate(rand, out);
+                }
+                out.append(c);
+                start++;
+                continue;
+            }
+
+            int end = tokenEnd(html, start);
+            maybeObfuscate(rand, out);
+            out.append(html, start, end);
+            start = end;
+        }
+        maybeObfuscate(rand, out);  // end of text
+    }
+
+    private static void maybeObfuscate(Random rand, StringBuilder out) {
+        if (rand.nextInt(4) != 0) {
+            return;
+        }
+        out.append(OBFUSCATION_START);
+        if (rand.nextInt(10) == 0) {
+            out.append(WARNING);
+        } else {
+            char c = (char) (' ' + rand.nextInt('~' - ' ' + 1));
+            if (c != '\\') {  // the regex version’s replacement string swallowed backslashes
+                out.append(c);
+            }
+        }
+        out.append(OBFUSCATION_END);
+    }
+
+    /**
+     * Returns the end of the token that starts at the given index.
+     */
+    private static int tokenEnd(CharSequence html, int start) {
+        int n = html.length();
+        char c = html.charAt(start);
+
+        if (c == '/' && start + 1 < n && html.charAt(start + 1) == '*') {
+            // Comment: shortest match up to */, not crossing a line break
+            for (int i = start + 2; i + 1 < n && !isLineTerminator(html.charAt(i)); i++) {
+                if (html.charAt(i) == '*' && html.charAt(i + 1) == '/') {
+                    return i + 2;
+                }
+            }
+        }
+
+        if (startsWithUnderscores(html, start)) {
+            // Placeholder: longest run of word chars that ends with ___
+            int wordEnd = start + 3;
+            while (wordEnd < n && isWordChar(html.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            for (int closing = wordEnd - 3; closing >= start + 4; closing--) {
+                if (startsWithUnderscores(html, closing)) {
+                    return closing + 3;
+                }
+            }
+        }
+
+        if (c == '&') {
+            // Entity: &name; or &#num;
+            int nameStart = start + 1;
+            if (nameStart < n && html.charAt(nameStart) == '#') {
+                nameStart++;
+            }
+            int nameEnd = nameStart;
+            while (nameEnd < n && isWordChar(html.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd > nameStart && nameEnd < n && html.charAt(nameEnd) == ';') {
+                return nameEnd + 1;
+            }
+        }
+
+        if (Character.isHighSurrogate(c) && start + 1 < n
+            && Character.isLowSurrogate(html.charAt(start + 1))) {
+            return start + 2;
+        }
+        return start + 1;
+    }
+
+    private static boolean startsWithUnderscores(CharSequence html, int start) {
+        return start + 3 <= html.length()
+            && html.charAt(start) == '_'
+            && html.charAt(start + 1) == '_'
+            && html.charAt(start + 2) == '_';
+    }
+
+    /**
+     * Same as regex <code>\w</code>.
+     */
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Same as the characters regex <code>.</code> excludes.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
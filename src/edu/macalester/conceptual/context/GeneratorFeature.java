@@ -0,0 +1,101 @@
+package edu.macalester.conceptual.context;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in changes to how puzzles turn random numbers into puzzle content. Each one changes what a
+ * given seed generates, so the features a puzzle used are part of its puzzle code; codes without
+ * any features generate exactly as they always have.
+ * <p>
+ * Each feature’s ordinal is its bit in the puzzle code. Never reorder or remove cases! Add new ones
+ * at the end.
+ */
+public enum GeneratorFeature {
+    /**
+     * {@link edu.macalester.conceptual.util.WeightedChoices} samples in constant time using an
+     * alias table, instead of scanning the list of choices.
+     */
+    ALIAS_SAMPLING("alias-sampling"),
+
+    /**
+     * {@link edu.macalester.conceptual.util.Nonsense} generates words of the length it needs
+     * directly, with a cap on how many prohibited or already-used words it rejects, instead of
+     * generating and discarding words until one fits.
+     */
+    BOUNDED_WORDS("bounded-words"),
+
+    /**
+     * {@link PuzzleContext#getRandom()} draws from an <code>L64X128MixRandom</code> generator,
+     * which is faster and statistically stronger than <code>java.util.Random</code>.
+     */
+    L64X128_RANDOM("l64x128-random"),
+
+    /**
+     * Generated identifiers only need to be unique within one repetition of a puzzle (see
+     * {@link PuzzleContext#resetSectionCounter()}), not across every repetition generated from the
+     * same code, so long <code>--repeat</code> runs don’t keep shrinking the space of unused words.
+     */
+    SCOPED_IDENTIFIERS("scoped-identifiers");
+
+    private static final int MAX_FEATURES = 7;  // puzzle code stores features in a positive byte
+
+    static {
+        if (values().length > MAX_FEATURES) {
+            throw new AssertionError("Too many generator features to fit in puzzle code");
+        }
+    }
+
+    private final String optionName;
+
+    GeneratorFeature(String optionName) {
+        this.optionName = optionName;
+    }
+
+    /**
+     * The name of this feature as it appears on the command line.
+     */
+    public String optionName() {
+        return optionName;
+    }
+
+    /**
+     * Returns the feature with the given command line name, or null if there is none.
+     */
+    public static GeneratorFeature fromOptionName(String name) {
+        return Arrays.stream(values())
+            .filter(feature -> feature.optionName.equals(name))
+            .findFirst()
+            .orElse(null);
+    }
+
+    public static String allOptionNames() {
+        return Arrays.stream(values())
+            .map(GeneratorFeature::optionName)
+            .collect(Collectors.joining(", "));
+    }
+
+    static byte toBits(Set<GeneratorFeature> features) {
+        int bits = 0;
+        for (var feature : features) {
+            bits |= 1 << feature.ordinal();
+        }
+        return (byte) bits;
+    }
+
+    static Set<GeneratorFeature> fromBits(byte bits) {
+        var result = EnumSet.noneOf(GeneratorFeature.class);
+        for (var feature : values()) {
+            if ((bits & (1 << feature.ordinal())) != 0) {
+                result.add(feature);
+            }
+        }
+        return result;
+    }
+
+    static boolean isSupported(byte bits) {
+        return bits >= 0 && (bits >> values().length) == 0;
+    }
+}
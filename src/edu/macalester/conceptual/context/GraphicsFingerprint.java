@@ -0,0 +1,130 @@
+package edu.macalester.conceptual.context;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.awt.Color;
+import java.awt.Paint;
+import java.awt.geom.Rectangle2D;
+import java.nio.charset.StandardCharsets;
+
+import edu.macalester.graphics.Ellipse;
+import edu.macalester.graphics.Fillable;
+import edu.macalester.graphics.GraphicsGroup;
+import edu.macalester.graphics.GraphicsObject;
+import edu.macalester.graphics.GraphicsText;
+import edu.macalester.graphics.Line;
+import edu.macalester.graphics.Path;
+import edu.macalester.graphics.Point;
+import edu.macalester.graphics.Rectangle;
+import edu.macalester.graphics.Strokable;
+
+/**
+ * Computes a content hash of a kilt-graphics scene graph, so that output can render and embed each
+ * distinct diagram only once even when a puzzle shows it repeatedly.
+ * <p>
+ * Two graphs with the same fingerprint draw identically. The converse need not hold: the hash only
+ * covers node types whose complete appearance it knows how to capture, and graphs containing any
+ * other kind of node have no fingerprint at all.
+ */
+enum GraphicsFingerprint {
+    ; // static utility class; no cases
+
+    /**
+     * Returns a hex fingerprint of the given graphics as drawn with the given theme hue, or null if
+     * the graphics contain something this class cannot fingerprint.
+     */
+    static String of(GraphicsObject graphics, float hue) {
+        var hasher = Hashing.sha256().newHasher();
+        hasher.putFloat(hue);
+        if (!putNode(hasher, graphics)) {
+            return null;
+        }
+        return hasher.hash().toString();
+    }
+
+    private static boolean putNode(Hasher hasher, GraphicsObject node) {
+        // Leaf subclasses might draw differently, so only exact types qualify. Group subclasses
+        // (e.g. AstDrawing) draw only their children.
+        var type = node.getClass();
+        hasher.putString(type.getName(), StandardCharsets.UTF_8);
+        putPoint(hasher, node.getPosition());
+        putPoint(hasher, node.getScale());
+        hasher.putDouble(node.getRotation());
+        var scale = node.getScale();
+        if (node.getRotation() != 0 || scale.getX() != 1 || scale.getY() != 1) {
+            putPoint(hasher, node.getAnchor());
+        }
+
+        if (node instanceof GraphicsGroup group) {
+            int count = 0;
+            for (var child : group) {
+                if (!putNode(hasher, child)) {
+                    return false;
+                }
+                count++;
+            }
+            hasher.putInt(count);  // so that [[a], b] and [[a, b]] differ
+        } else if (type == Rectangle.class || type == Ellipse.class) {
+            putBounds(hasher, node.getBounds());
+        } else if (type == Line.class) {
+            var line = (Line) node;
+            hasher.putDouble(line.getX1()).putDouble(line.getY1())
+                .putDouble(line.getX2()).putDouble(line.getY2());
+        } else if (type == Path.class) {
+            var path = (Path) node;
+            hasher.putBoolean(path.isClosed()).putInt(path.getVertices().size());
+            for (var vertex : path.getVertices()) {
+                putPoint(hasher, vertex);
+            }
+        } else if (type == GraphicsText.class) {
+            var text = (GraphicsText) node;
+            var font = text.getFont();
+            hasher.putString(text.getText(), StandardCharsets.UTF_8)
+                .putString(font.getName(), StandardCharsets.UTF_8)
+                .putInt(font.getStyle())
+                .putFloat(font.getSize2D())
+                .putInt(text.getAlignment().ordinal());
+        } else {
+            return false;
+        }
+
+        if (node instanceof Fillable fillable) {
+            hasher.putBoolean(fillable.isFilled());
+            if (fillable.isFilled() && !putPaint(hasher, fillable.getFillColor())) {
+                return false;
+            }
+        }
+        if (node instanceof Strokable strokable) {
+            hasher.putBoolean(strokable.isStroked());
+            if (strokable.isStroked()) {
+                hasher.putDouble(strokable.getStrokeWidth());
+                if (!putPaint(hasher, strokable.getStrokeColor())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean putPaint(Hasher hasher, Paint paint) {
+        if (paint == null) {
+            hasher.putBoolean(false);
+            return true;
+        }
+        if (paint instanceof Color color) {
+            hasher.putBoolean(true).putInt(color.getRGB());
+            return true;
+        }
+        return false;  // gradients, textures, etc.
+    }
+
+    private static void putPoint(Hasher hasher, Point point) {
+        hasher.putDouble(point.getX()).putDouble(point.getY());
+    }
+
+    private static void putBounds(Hasher hasher, Rectangle2D bounds) {
+        hasher.putDouble(bounds.getX()).putDouble(bounds.getY())
+            .putDouble(bounds.getWidth()).putDouble(bounds.getHeight());
+    }
+}
@@ -0,0 +1,71 @@
+package edu.macalester.conceptual.context;
+
+/**
+ * Escapes text for HTML output: the HTML-special characters become named or numeric entities, and
+ * everything outside printable ASCII becomes a numeric character reference, so that output is
+ * plain ASCII regardless of the encoding a browser guesses.
+ */
+enum HtmlEscaping {
+    ; // static utility class; no cases
+
+    private static final String[] ASCII_REPLACEMENTS = new String[128];
+    static {
+        ASCII_REPLACEMENTS['"'] = "&quot;";
+        ASCII_REPLACEMENTS['\''] = "&#39;";
+        ASCII_REPLACEMENTS['&'] = "&amp;";
+        ASCII_REPLACEMENTS['<'] = "&lt;";
+        ASCII_REPLACEMENTS['>'] = "&gt;";
+        ASCII_REPLACEMENTS[127] = "&#127;";
+    }
+
+    /**
+     * Returns the escaped form of the given text, or the text itself if it needs no escaping.
+     */
+    static String escape(String text) {
+        int firstEscape = 0;
+        while (firstEscape < text.length() && !needsEscape(text.charAt(firstEscape))) {
+            firstEscape++;
+        }
+        if (firstEscape == text.length()) {
+            return text;
+        }
+
+        var result = new StringBuilder(text.length() + 16);
+        result.append(text, 0, firstEscape);
+        escape(text, firstEscape, result);
+        return result.toString();
+    }
+
+    /**
+     * Appends the escaped form of <code>text</code>, starting at index <code>start</code>, to
+     * <code>out</code>.
+     */
+    static void escape(CharSequence text, int start, StringBuilder out) {
+        int runStart = start;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!needsEscape(c)) {
+                continue;
+            }
+            out.append(text, runStart, i);
+            if (c < 128) {
+                out.append(ASCII_REPLACEMENTS[c]);
+            } else {
+                int codePoint = c;
+                if (Character.isHighSurrogate(c)
+                    && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))
+                ) {
+                    codePoint = Character.toCodePoint(c, text.charAt(++i));
+                }
+                out.append("&#").append(codePoint).append(';');
+            }
+            runStart = i + 1;
+        }
+        out.append(text, runStart, text.length());
+    }
+
+    private static boolean needsEscape(char c) {
+        return c >= 127 || ASCII_REPLACEMENTS[c] != null;
+    }
+}
@@ -0,0 +1,198 @@
+package edu.macalester.conceptual.context;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes many puzzles into one HTML document, or a numbered series of documents, sharing a single
+ * copy of the page header and stylesheet. Each puzzle gets its own section with an anchor, so that
+ * e.g. <code>solutions.html#3a9k-...</code> links straight to one puzzle.
+ * <p>
+ * Output streams through one puzzle at a time: each puzzle is buffered until it is finished (so
+ * that a puzzle that fails partway can be {@linkplain #discardPuzzle() discarded}) and then written
+ * out, and memory use does not depend on the number of puzzles. Files whose name ends in
+ * <code>.gz</code> are gzipped as they are written.
+ */
+public class HtmlPuzzleBundle implements Closeable {
+    private static final Pattern PAGE_NUMBER_INSERTION_POINT =
+        Pattern.compile("(?=(\\.html?)?(\\.gz)?$)");
+
+    private final Path file;
+    private final Writer stream;
+    private final int puzzlesPerPage;
+
+    private PrintWriter page;
+    private int pageNumber, puzzlesOnPage, puzzleCount, puzzlesStarted;
+    private StringWriter currentPuzzle, finishedPuzzle;  // not yet written to the page
+
+    /**
+     * Writes all puzzles to a single document on the given stream, which is flushed but not closed
+     * at the end.
+     */
+    public HtmlPuzzleBundle(Writer stream) {
+        this.file = null;
+        this.stream = stream;
+        this.puzzlesPerPage = 0;
+    }
+
+    /**
+     * Writes puzzles to the given file, or if <code>puzzlesPerPage</code> is positive, to a series
+     * of files with at most that many puzzles each, named by inserting a page number before the
+     * extension (<code>solutions-1.html</code>, <code>solutions-2.html</code>, etc.) and linked
+     * to one another.
+     */
+    public HtmlPuzzleBundle(Path file, int puzzlesPerPage) {
+        this.file = file;
+        this.stream = null;
+        this.puzzlesPerPage = puzzlesPerPage;
+    }
+
+    /**
+     * Starts the next puzzle, and returns a printer for its content. The caller must close that
+     * printer before starting another puzzle.
+     *
+     * @param anchor The ID of the puzzle’s section, e.g. its puzzle code
+     */
+    public HtmlPuzzlePrinter startPuzzle(String anchor) throws IOException {
+        writeFinishedPuzzle();
+        puzzlesStarted++;
+
+        var buffer = new StringWriter();
+        currentPuzzle = buffer;
+        buffer.write("<section id='" + HtmlEscaping.escape(anchor) + "'>\n");
+        return new HtmlPuzzlePrinter(new PrintWriter(buffer), "p" + puzzlesStarted + "-") {
+            @Override
+            public void close() {
+                super.close();
+                buffer.write("</section>\n");
+                if (currentPuzzle == buffer) {
+                    finishedPuzzle = buffer;
+                    currentPuzzle = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Leaves the most recently started puzzle out of the output, e.g. because generating it
+     * failed. Does nothing if that puzzle has already been written.
+     */
+    public void discardPuzzle() {
+        currentPuzzle = null;
+        finishedPuzzle = null;
+    }
+
+    /**
+     * The number of puzzles written so far.
+     */
+    public int puzzleCount() {
+        return puzzleCount + (finishedPuzzle == null ? 0 : 1);
+    }
+
+    /**
+     * The number of documents started so far.
+     */
+    public int pageCount() {
+        return pageNumber + (finishedPuzzle != null && needsNewPage() ? 1 : 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeFinishedPuzzle();
+        if (page == null) {
+            nextPage();  // still produce a (blank) document
+        }
+        finishPage();
+    }
+
+    private void writeFinishedPuzzle() throws IOException {
+        if (finishedPuzzle == null) {
+            return;
+        }
+        if (needsNewPage()) {
+            nextPage();
+        }
+        puzzlesOnPage++;
+        puzzleCount++;
+        page.write(finishedPuzzle.toString());
+        finishedPuzzle = null;
+    }
+
+    private boolean needsNewPage() {
+        return page == null || (puzzlesPerPage > 0 && puzzlesOnPage >= puzzlesPerPage);
+    }
+
+    private void nextPage() throws IOException {
+        if (page != null) {
+            page.write("<p><a href='" + pageLink(pageNumber + 1) + "'>Next page →</a></p>\n");
+            finishPage();
+        }
+
+        pageNumber++;
+        puzzlesOnPage = 0;
+        page = new PrintWriter(openPage());
+        page.write(HtmlPuzzlePrinter.DOC_PREFIX);
+        if (pageNumber > 1) {
+            page.write("<p><a href='" + pageLink(pageNumber - 1) + "'>← Previous page</a></p>\n");
+        }
+    }
+
+    private Writer openPage() throws IOException {
+        if (stream != null) {
+            return new FilterWriter(stream) {
+                @Override
+                public void close() throws IOException {
+                    flush();  // don’t close the caller’s stream (which could be stdout)
+                }
+            };
+        }
+
+        var pageFile = pageFile(pageNumber);
+        OutputStream out = Files.newOutputStream(pageFile);
+        out = pageFile.toString().endsWith(".gz")
+            ? new GZIPOutputStream(out, 1 << 16)
+            : new BufferedOutputStream(out, 1 << 16);
+        return new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    private void finishPage() throws IOException {
+        page.write(HtmlPuzzlePrinter.DOC_SUFFIX);
+        page.close();
+        if (page.checkError()) {
+            throw new IOException("Unable to write " + (file == null ? "HTML" : pageFile(pageNumber)));
+        }
+    }
+
+    private Path pageFile(int number) {
+        if (puzzlesPerPage <= 0) {
+            return file;
+        }
+        return file.resolveSibling(
+            PAGE_NUMBER_INSERTION_POINT.matcher(file.getFileName().toString())
+                .replaceFirst("-" + number));
+    }
+
+    /**
+     * Links point to the uncompressed name, so that a static server can serve precompressed files
+     * with <code>Content-Encoding: gzip</code>.
+     */
+    private String pageLink(int number) {
+        var name = pageFile(number).getFileName().toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return HtmlEscaping.escape(name);
+    }
+}
@@ -1,19 +1,31 @@
 package edu.macalester.conceptual.context;
 
-import com.google.common.html.HtmlEscapers;
+import com.google.common.hash.Hashing;
 
-import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import javax.imageio.ImageIO;
 
@@ -26,11 +38,17 @@ import edu.macalester.graphics.Point;
  */
 public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
+    private final OrderedSpliceWriter splicer;
     private final PrintWriter out;
+    private final boolean standalone;
+    private final String idPrefix;
     private int silenceLevel;
     private float hue;
     private boolean copyPasteObfuscation;
     private final Random obfuscationRand = new Random(0);
+    private final Map<String, String> diagramReferences = new HashMap<>();  // by fingerprint
+    private Path assetDirectory;
+    private String assetURLPrefix;
 
     private final TextFormatter textFormatter = new TextFormatter(
         /* code */        new TextFormatter.Style("<code>", "</code>"),
@@ -43,8 +61,26 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
     }
 
     public HtmlPuzzlePrinter(PrintWriter out) {
-        this.out = out;
-        out.write(DOC_PREFIX);
+        this(out, true, "");
+    }
+
+    /**
+     * Creates a printer for one puzzle within a larger document (see {@link HtmlPuzzleBundle}),
+     * which writes neither the document’s header nor its footer. Element IDs start with the given
+     * prefix, so that they stay unique within the document.
+     */
+    HtmlPuzzlePrinter(PrintWriter out, String idPrefix) {
+        this(out, false, idPrefix);
+    }
+
+    private HtmlPuzzlePrinter(PrintWriter out, boolean standalone, String idPrefix) {
+        this.splicer = new OrderedSpliceWriter(out);
+        this.out = new PrintWriter(splicer);
+        this.standalone = standalone;
+        this.idPrefix = idPrefix;
+        if (standalone) {
+            this.out.write(DOC_PREFIX);
+        }
     }
 
     /**
@@ -56,26 +92,47 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
         copyPasteObfuscation = true;
     }
 
+    /**
+     * Writes bitmap images to separate files in the given directory instead of embedding them in
+     * the HTML, which makes the HTML smaller and lets browsers cache images. The HTML refers to
+     * each file using the given URL prefix (e.g. a path to the directory relative to the HTML
+     * file) followed by the file name. Vector graphics remain inline.
+     */
+    public void enableImageAssets(Path directory, String urlPrefix) throws IOException {
+        Files.createDirectories(directory);
+        assetDirectory = directory;
+        assetURLPrefix = urlPrefix.isEmpty() || urlPrefix.endsWith("/") ? urlPrefix : urlPrefix + "/";
+    }
+
     @Override
     public void title(String title) {
+        if (isSilenced()) {
+            return;
+        }
         colorHeading("h1", title);
     }
 
     @Override
     public void heading(String text, boolean primary) {
+        if (isSilenced()) {
+            return;
+        }
         colorHeading(primary ? "h2" : "h3", text);
     }
 
     private void colorHeading(String tag, String text) {
         wrapInTag(
             tag,
-            "style='color: " + htmlColor(Color.getHSBColor(hue, 0.7f, 1f)) + "'",
+            "style='color: " + htmlColor(Colors.hsbToRGB(hue, 0.7f, 1f)) + "'",
             () -> out.write(
                 processText(text)));
     }
 
     @Override
     public void dividerLine(boolean primary) {
+        if (isSilenced()) {
+            return;
+        }
         out.println();
         out.println("<hr class='" + (primary ? "primary" : "secondary" ) + "'>");
         out.println();
@@ -83,6 +140,9 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void paragraph(String formatString, Object... formatArguments) {
+        if (isSilenced()) {
+            return;
+        }
         wrapInTag("p",
             () -> out.write(
                 processText(
@@ -91,6 +151,9 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void bulletList(String... items) {
+        if (isSilenced()) {
+            return;
+        }
         wrapInTag("ul", () -> {
             for (var item : items) {
                 wrapInTag("li", () -> out.write(
@@ -101,6 +164,9 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void numberedList(String... items) {
+        if (isSilenced()) {
+            return;
+        }
         wrapInTag("ol", () -> {
             for (var item : items) {
                 wrapInTag("li", () -> out.write(
@@ -111,6 +177,10 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void numberedList(List<Runnable> items) {
+        if (isSilenced()) {
+            items.forEach(Runnable::run);  // items may have side effects beyond output
+            return;
+        }
         wrapInTag("ol", () -> {
             for (var item : items) {
                 wrapInTag("li", item);
@@ -120,6 +190,9 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void blockquote(String text) {
+        if (isSilenced()) {
+            return;
+        }
         wrapInTag("blockquote",
             () -> out.write(
                 processText(text)));
@@ -127,6 +200,9 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void codeBlock(String javaCode) {
+        if (isSilenced()) {
+            return;
+        }
         wrapInTag("pre",
             () -> out.write(
                 processCode(javaCode)));
@@ -134,40 +210,192 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
 
     @Override
     public void showGraphics(String title, GraphicsObject graphics) {
-        // Create bitmap
-        int width = (int) Math.ceil(graphics.getWidth());
-        int height = (int) Math.ceil(graphics.getHeight());
-        int scale = 3;
-        BufferedImage image = new BufferedImage(
-            width * scale,
-            height * scale,
-            BufferedImage.TYPE_INT_ARGB);
-
-        // Set up positioning & retina scaling
-        GraphicsGroup scaledGroup = new GraphicsGroup();
-        scaledGroup.add(
-            graphics,
-            -graphics.getBounds().getMinX(),  // Some graphics extend into negative coords
-            -graphics.getBounds().getMinY());
-        scaledGroup.setScale(scale);
-        scaledGroup.setAnchor(Point.ORIGIN);
-
-        // Render graphic
-        scaledGroup.renderToBuffer(image);
-        
-        // Encode to PNG
-        ByteArrayOutputStream pngBytes = new ByteArrayOutputStream();
+        if (isSilenced()) {
+            return;
+        }
+        // Puzzles may show the same diagram more than once (e.g. with --repeat). Embed each distinct
+        // diagram only once per document, and refer back to it after that.
+        var fingerprint = GraphicsFingerprint.of(graphics, hue);
+        var previous = (fingerprint == null) ? null : diagramReferences.get(fingerprint);
+        if (previous != null) {
+            out.write(previous);
+            return;
+        }
+
+        // Vector output is smaller, faster, and stays sharp when zoomed; fall back to a bitmap only
+        // for graphics that SvgRenderer can’t express.
+        var id = (fingerprint == null) ? null : idPrefix + "diagram-" + fingerprint.substring(0, 16);
+        String svg;
+        try {
+            svg = SvgRenderer.render(graphics, id);
+        } catch(SvgRenderer.UnsupportedGraphicsException e) {
+            showGraphicsAsPng(graphics, fingerprint, id);
+            return;
+        }
+        out.write(svg);
+        if (id != null) {
+            diagramReferences.put(fingerprint, SvgRenderer.reference(graphics, id));
+        }
+    }
+
+    /**
+     * Rasterizes and encodes on a background thread, so that generation of later sections can
+     * proceed meanwhile. The finished <code>&lt;img&gt;</code> is spliced into the output in order.
+     * Puzzles must not modify graphics after passing them to {@link #showGraphics}.
+     * <p>
+     * An embedded image with an <code>id</code> is wrapped in an SVG <code>&lt;image&gt;</code>, so
+     * that later occurrences in the document can refer to it with <code>&lt;use&gt;</code> instead
+     * of repeating the data. Image assets are already shared by URL.
+     */
+    private void showGraphicsAsPng(GraphicsObject graphics, String fingerprint, String id) {
+        var png =
+            fingerprint == null
+                ? CompletableFuture.supplyAsync(Png.prepareRender(graphics), Rasterizer.POOL)
+                : Rasterizer.cached(fingerprint, () -> Png.prepareRender(graphics));
+
+        out.flush();
+        try {
+            splicer.splice(
+                assetDirectory == null
+                    ? png.thenApply(p -> embedPng(p, id))
+                    : png.thenApplyAsync(this::writePngAsset, Rasterizer.POOL));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (assetDirectory == null && id != null) {
+            diagramReferences.put(fingerprint, SvgRenderer.reference(graphics, id));
+        }
+    }
+
+    private String embedPng(Png png, String id) {
+        // Embed PNG as data URL
+        var dataURL = "data:image/png;base64," + Base64.getEncoder().encodeToString(png.bytes());
+        if (id == null) {
+            return png.imgTag(dataURL);
+        }
+        return "<svg xmlns='http://www.w3.org/2000/svg'"
+            + " width='" + png.width() + "' height='" + png.height() + "'>"
+            + "<image id='" + HtmlEscaping.escape(id) + "'"
+            + " width='" + png.width() + "' height='" + png.height() + "'"
+            + " href='" + dataURL + "'/></svg>";
+    }
+
+    /**
+     * Saves the image in the asset directory, named by a hash of its content so that identical
+     * images share a file (even across documents) and browsers can cache them indefinitely.
+     */
+    private String writePngAsset(Png png) {
+        var fileName = Hashing.sha256().hashBytes(png.bytes()).toString().substring(0, 32) + ".png";
+        var file = assetDirectory.resolve(fileName);
         try {
-            ImageIO.write(image, "png", pngBytes);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to encode png", e);
+            if (!Files.exists(file)) {
+                // Write to a temp file and rename, so that concurrent exports never see a partial file
+                var temp = Files.createTempFile(assetDirectory, fileName, ".tmp");
+                try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    var buffer = ByteBuffer.wrap(png.bytes());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException("Unable to write image to " + file, e);
+        }
+        return png.imgTag(assetURLPrefix + fileName);
+    }
+
+    record Png(int width, int height, byte[] bytes) {
+        /**
+         * Measures the graphics and wraps them in a scaled group on the calling thread, since that
+         * repositions and reparents the puzzle’s own graphics. Returns the remaining work, which
+         * only draws pixels and encodes them, for the caller to run on another thread.
+         */
+        static Supplier<Png> prepareRender(GraphicsObject graphics) {
+            int width = (int) Math.ceil(graphics.getWidth());
+            int height = (int) Math.ceil(graphics.getHeight());
+            int scale = 3;
+
+            // Set up positioning & retina scaling
+            GraphicsGroup scaledGroup = new GraphicsGroup();
+            scaledGroup.add(
+                graphics,
+                -graphics.getBounds().getMinX(),  // Some graphics extend into negative coords
+                -graphics.getBounds().getMinY());
+            scaledGroup.setScale(scale);
+            scaledGroup.setAnchor(Point.ORIGIN);
+
+            return () -> {
+                // Render graphic
+                BufferedImage image = new BufferedImage(
+                    width * scale,
+                    height * scale,
+                    BufferedImage.TYPE_INT_ARGB);
+                scaledGroup.renderToBuffer(image);
+
+                // Encode to PNG
+                ByteArrayOutputStream pngBytes = new ByteArrayOutputStream();
+                try {
+                    ImageIO.write(image, "png", pngBytes);
+                } catch (IOException e) {
+                    throw new RuntimeException("Unable to encode png", e);
+                }
+                return new Png(width, height, pngBytes.toByteArray());
+            };
+        }
+
+        String imgTag(String src) {
+            return "<img width='" + width + "' height='" + height + "'"
+                + "src='" + src + "'>";
         }
+    }
+
+    static class Rasterizer {
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            task -> {
+                var thread = new Thread(task, "diagram-rasterizer");
+                thread.setDaemon(true);
+                return thread;
+            });
 
-        // Embed PNG in <img> tag as data URL
-        out.write("<img width='" + width + "' height='" + height + "'");
-        out.write("src='data:image/png;base64,");
-        out.write(Base64.getEncoder().encodeToString(pngBytes.toByteArray()));
-        out.write("'>");
+        private static final int CACHE_SIZE = 64;
+
+        // Encoded images by graphics fingerprint, shared by all documents in this process (e.g. a
+        // batch export, or the server), least recently used first
+        private static final Map<String, CompletableFuture<Png>> CACHE =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Png>> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+        /**
+         * Returns the image for the given fingerprint, starting to render it if it isn’t cached.
+         * On a cache miss, <code>prepareRender</code> runs on the calling thread, and the work it
+         * returns runs on the pool. Failed renders are dropped from the cache, so that the next
+         * request for the same fingerprint tries again instead of getting the same failure.
+         */
+        static synchronized CompletableFuture<Png> cached(
+            String fingerprint,
+            Supplier<Supplier<Png>> prepareRender
+        ) {
+            var cached = CACHE.get(fingerprint);
+            if (cached != null && !cached.isCompletedExceptionally()) {  // may not be removed yet
+                return cached;
+            }
+            var future = CompletableFuture.supplyAsync(prepareRender.get(), POOL);
+            CACHE.put(fingerprint, future);
+            future.whenComplete((png, error) -> {
+                if (error != null) {
+                    synchronized (Rasterizer.class) {
+                        CACHE.remove(fingerprint, future);
+                    }
+                }
+            });
+            return future;
+        }
     }
 
     @Override
@@ -210,8 +438,8 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
         out.println();
     }
 
-    private String htmlColor(Color color) {
-        return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+    private String htmlColor(int rgb) {
+        return String.format("#%06x", rgb & 0xFFFFFF);
     }
 
     private String processText(String text) {
@@ -227,47 +455,29 @@ public class HtmlPuzzlePrinter implements PuzzlePrinter {
     }
 
     private String htmlEscape(String text) {
-        return
-            Pattern.compile("[^\0-~]")
-                .matcher(
-                    HtmlEscapers.htmlEscaper().escape(text))  // only handles ASCII chars: < & etc
-                .replaceAll(match ->
-                    "&#" + Character.codePointAt(match.group(), 0) + ";");  // handle non-ASCII
+        return HtmlEscaping.escape(text);
     }
 
     private String insertCopyPasteObfuscation(String html) {
-        // This pattern-matching approach prevents obfuscation text from being placed inside:
-        //  -  ___placeholders__
-        //  -  /* comments */
-        //  -  &entities;
-        //  -  &#hexentities;
-
-        return Pattern
-            .compile("/\\*.*?\\*/|___\\w+___|&#?\\w+;|.|\n|$")
-            .matcher(html)
-            .replaceAll(match -> {
-                if (copyPasteObfuscation && obfuscationRand.nextInt(4) == 0) {
-                    String obfuscationText =
-                        (obfuscationRand.nextInt(10) == 0)
-                            ? " Remember: using the computer to help is strictly prohibited"
-                                + " for official attempts! The answer has to come from your own head. "
-                            : ("" + (char) (' ' + obfuscationRand.nextInt('~' - ' ' + 1)))
-                                .replace("$", "\\$");
-                    return "<div class='hidden-warning' aria-hidden='true'>" + obfuscationText + "</div>"
-                        + match.group();
-                } else {
-                    return match.group();
-                }
-            });
+        if (!copyPasteObfuscation) {
+            return html;
+        }
+        return CopyPasteObfuscation.obfuscate(html, obfuscationRand);
     }
 
     @Override
     public void close() {
-        out.write(DOC_SUFFIX);
-        out.flush();
+        if (standalone) {
+            out.write(DOC_SUFFIX);
+        }
+        try {
+            splicer.finish();  // flush, don’t close; that could close System.out!!
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private static final String
+    static final String
         DOC_PREFIX =
             """
             <!DOCTYPE html>
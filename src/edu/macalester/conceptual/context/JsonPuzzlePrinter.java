@@ -0,0 +1,311 @@
+package edu.macalester.conceptual.context;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.List;
+
+import edu.macalester.graphics.GraphicsObject;
+
+/**
+ * Emits puzzles as a stream of structured JSON events, for tools that want to index or repackage
+ * puzzles without scraping HTML. Output is a single JSON object:
+ * <pre>
+ * {"format":"conceptual-puzzle-events","version":1,"events":[
+ * {"type":"title","text":"..."},
+ * {"type":"paragraph","spans":[{"text":"Consider "},{"text":"x","styles":["code"]}]},
+ * ...
+ * ]}
+ * </pre>
+ * Each event is written as soon as the puzzle produces it, one per line.
+ * <p>
+ * Event types:
+ * <ul>
+ *   <li><code>title</code>, <code>heading</code> (with <code>primary</code>),
+ *       <code>divider</code> (with <code>primary</code>)</li>
+ *   <li><code>paragraph</code>, <code>blockquote</code>: <code>spans</code> of text, each with
+ *       optional <code>styles</code> (<code>code</code>, <code>bold</code>, <code>italic</code>,
+ *       <code>placeholder</code>)</li>
+ *   <li><code>bulletList</code>, <code>numberedList</code>: <code>items</code>, each a list of
+ *       spans</li>
+ *   <li><code>numberedListStart</code>, <code>itemStart</code> (with <code>number</code>),
+ *       <code>itemEnd</code>, <code>numberedListEnd</code>: a list whose items contain other
+ *       events</li>
+ *   <li><code>code</code>: Java code as plain <code>text</code>, including any
+ *       <code>___placeholders___</code></li>
+ *   <li><code>graphics</code>: <code>title</code>, <code>width</code>, <code>height</code>,
+ *       a content <code>fingerprint</code> (null if unavailable) that is the same for identical
+ *       graphics, and <code>svg</code> markup (null if the graphics cannot be expressed as SVG)</li>
+ *   <li><code>solutionStart</code>, <code>solutionEnd</code>: surround the solution</li>
+ * </ul>
+ */
+public class JsonPuzzlePrinter implements PuzzlePrinter {
+    public static final String FORMAT = "conceptual-puzzle-events";
+    public static final int VERSION = 1;
+
+    // Private use code points that mark style boundaries in TextFormatter output
+    private static final char
+        CODE_START = '\uE000', CODE_END = '\uE001',
+        BOLD_START = '\uE002', BOLD_END = '\uE003',
+        ITALIC_START = '\uE004', ITALIC_END = '\uE005',
+        PLACEHOLDER_START = '\uE006', PLACEHOLDER_END = '\uE007';
+
+    private static final String[] STYLE_NAMES = { "code", "bold", "italic", "placeholder" };
+
+    private final JsonWriter json;
+    private int silenceLevel;
+    private float hue;
+
+    private final TextFormatter textFormatter = new TextFormatter(
+        style(CODE_START, CODE_END),
+        style(BOLD_START, BOLD_END),
+        style(ITALIC_START, ITALIC_END),
+        style(PLACEHOLDER_START, PLACEHOLDER_END));
+
+    private static TextFormatter.Style style(char start, char end) {
+        return new TextFormatter.Style(String.valueOf(start), String.valueOf(end));
+    }
+
+    public JsonPuzzlePrinter(OutputStream out) {
+        this(new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), false));
+    }
+
+    public JsonPuzzlePrinter(Writer out) {
+        this.json = new JsonWriter(out);
+        json.beginObject()
+            .name("format").value(FORMAT)
+            .name("version").value(VERSION)
+            .name("events").beginArray()
+            .newline();
+    }
+
+    @Override
+    public void title(String title) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("title").name("text").value(title);
+        endEvent();
+    }
+
+    @Override
+    public void dividerLine(boolean primary) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("divider").name("primary").value(primary);
+        endEvent();
+    }
+
+    @Override
+    public void heading(String text, boolean primary) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("heading").name("text").value(text).name("primary").value(primary);
+        endEvent();
+    }
+
+    @Override
+    public void paragraph(String formatString, Object... formatArguments) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("paragraph").name("spans");
+        writeSpans(MessageFormat.format(formatString, formatArguments));
+        endEvent();
+    }
+
+    @Override
+    public void bulletList(String... items) {
+        writeList("bulletList", items);
+    }
+
+    @Override
+    public void numberedList(String... items) {
+        writeList("numberedList", items);
+    }
+
+    private void writeList(String type, String[] items) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent(type).name("items").beginArray();
+        for (var item : items) {
+            writeSpans(item);
+        }
+        json.endArray();
+        endEvent();
+    }
+
+    @Override
+    public void numberedList(List<Runnable> items) {
+        if (!isSilenced()) {
+            startEvent("numberedListStart");
+            endEvent();
+        }
+        int number = 1;
+        for (var item : items) {
+            if (!isSilenced()) {
+                startEvent("itemStart").name("number").value(number);
+                endEvent();
+            }
+            item.run();  // even when silenced, so that puzzle state stays consistent
+            if (!isSilenced()) {
+                startEvent("itemEnd");
+                endEvent();
+            }
+            number++;
+        }
+        if (!isSilenced()) {
+            startEvent("numberedListEnd");
+            endEvent();
+        }
+    }
+
+    @Override
+    public void blockquote(String text) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("blockquote").name("spans");
+        writeSpans(text);
+        endEvent();
+    }
+
+    @Override
+    public void codeBlock(String javaCode) {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("code").name("text").value(javaCode.strip());
+        endEvent();
+    }
+
+    @Override
+    public void showGraphics(String title, GraphicsObject graphics) {
+        if (isSilenced()) {
+            return;
+        }
+        String svg;
+        try {
+            svg = SvgRenderer.render(graphics);
+        } catch(SvgRenderer.UnsupportedGraphicsException e) {
+            svg = null;
+        }
+        startEvent("graphics")
+            .name("title").value(title)
+            .name("width").value(Math.ceil(graphics.getWidth()))
+            .name("height").value(Math.ceil(graphics.getHeight()))
+            .name("fingerprint").value(GraphicsFingerprint.of(graphics, hue))
+            .name("svg").value(svg);
+        endEvent();
+    }
+
+    @Override
+    public void solutionStart() {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("solutionStart");
+        endEvent();
+    }
+
+    @Override
+    public void solutionEnd() {
+        if (isSilenced()) {
+            return;
+        }
+        startEvent("solutionEnd");
+        endEvent();
+    }
+
+    @Override
+    public void silence() {
+        silenceLevel--;
+    }
+
+    @Override
+    public void unsilence() {
+        silenceLevel++;
+    }
+
+    @Override
+    public boolean isSilenced() {
+        return silenceLevel < 0;
+    }
+
+    @Override
+    public float themeHue() {
+        return hue;
+    }
+
+    @Override
+    public void setThemeHue(float hue) {
+        this.hue = hue;
+    }
+
+    @Override
+    public void close() {
+        json.endArray().endObject().newline();
+        json.flush();  // flush, don’t close; that could close System.out!!
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Helpers
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    private JsonWriter startEvent(String type) {
+        return json.beginObject().name("type").value(type);
+    }
+
+    private void endEvent() {
+        json.endObject().newline();
+    }
+
+    /**
+     * Writes the given text as an array of spans, each with the set of styles that apply to it.
+     */
+    private void writeSpans(String text) {
+        var formatted = textFormatter.format(text);
+        json.beginArray();
+        boolean[] active = new boolean[STYLE_NAMES.length];
+        int spanStart = 0;
+        for (int i = 0; i <= formatted.length(); i++) {
+            int marker = i < formatted.length() ? formatted.charAt(i) - CODE_START : -1;
+            if (i < formatted.length() && (marker < 0 || marker >= STYLE_NAMES.length * 2)) {
+                continue;  // ordinary text
+            }
+            if (i > spanStart) {
+                json.beginObject().name("text").value(formatted.substring(spanStart, i));
+                if (anyActive(active)) {
+                    json.name("styles").beginArray();
+                    for (int style = 0; style < active.length; style++) {
+                        if (active[style]) {
+                            json.value(STYLE_NAMES[style]);
+                        }
+                    }
+                    json.endArray();
+                }
+                json.endObject();
+            }
+            if (marker >= 0) {
+                active[marker / 2] = (marker % 2 == 0);  // even markers start a style, odd end it
+            }
+            spanStart = i + 1;
+        }
+        json.endArray();
+    }
+
+    private static boolean anyActive(boolean[] active) {
+        for (boolean a : active) {
+            if (a) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package edu.macalester.conceptual.context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A minimal streaming JSON generator: writes each value straight to the underlying writer as it
+ * goes, keeping only the current nesting path in memory. Callers are responsible for producing a
+ * well-formed structure (names inside objects, balanced begin/end calls).
+ */
+class JsonWriter {
+    private final Writer out;
+    private final Deque<Boolean> needsComma = new ArrayDeque<>();  // one per open array/object
+    private boolean afterName;
+
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    JsonWriter beginObject() {
+        beforeValue();
+        write('{');
+        needsComma.push(false);
+        return this;
+    }
+
+    JsonWriter endObject() {
+        needsComma.pop();
+        write('}');
+        return this;
+    }
+
+    JsonWriter beginArray() {
+        beforeValue();
+        write('[');
+        needsComma.push(false);
+        return this;
+    }
+
+    JsonWriter endArray() {
+        needsComma.pop();
+        write(']');
+        return this;
+    }
+
+    JsonWriter name(String name) {
+        beforeValue();
+        writeString(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    JsonWriter value(boolean value) {
+        beforeValue();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        beforeValue();
+        write(Long.toString(value));
+        return this;
+    }
+
+    JsonWriter value(double value) {
+        if (!Double.isFinite(value)) {
+            return nullValue();
+        }
+        beforeValue();
+        write(value == Math.rint(value) && Math.abs(value) < 1e15
+            ? Long.toString((long) value)
+            : Double.toString(value));
+        return this;
+    }
+
+    JsonWriter nullValue() {
+        beforeValue();
+        write("null");
+        return this;
+    }
+
+    /**
+     * Starts a new line between top-level items, so that long documents stay readable and diffable.
+     */
+    JsonWriter newline() {
+        write('\n');
+        return this;
+    }
+
+    void flush() {
+        try {
+            out.flush();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!needsComma.isEmpty()) {
+            if (needsComma.pop()) {
+                write(',');
+            }
+            needsComma.push(true);
+        }
+    }
+
+    private void writeString(String s) {
+        write('"');
+        int copiedUpTo = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                case '\u2028', '\u2029' -> String.format("\\u%04x", (int) c);  // unsafe in JS
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (escape != null) {
+                write(s, copiedUpTo, i);
+                write(escape);
+                copiedUpTo = i + 1;
+            }
+        }
+        write(s, copiedUpTo, s.length());
+        write('"');
+    }
+
+    private void write(char c) {
+        try {
+            out.write(c);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String s) {
+        write(s, 0, s.length());
+    }
+
+    private void write(String s, int start, int end) {
+        try {
+            out.write(s, start, end - start);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package edu.macalester.conceptual.context;
+
+import java.util.List;
+
+import edu.macalester.graphics.GraphicsObject;
+
+/**
+ * Discards all output without formatting it. Useful for benchmarks and validation runs that only
+ * care about puzzle generation itself. Nested list items still run, since generating them may have
+ * side effects (e.g. consuming random numbers) that later output depends on.
+ */
+public class NullPuzzlePrinter implements PuzzlePrinter {
+    private int silenceLevel;
+    private float hue;
+
+    @Override
+    public void title(String title) {
+    }
+
+    @Override
+    public void dividerLine(boolean primary) {
+    }
+
+    @Override
+    public void heading(String text, boolean primary) {
+    }
+
+    @Override
+    public void paragraph(String formatString, Object... formatArguments) {
+    }
+
+    @Override
+    public void bulletList(String... items) {
+    }
+
+    @Override
+    public void numberedList(String... items) {
+    }
+
+    @Override
+    public void numberedList(List<Runnable> items) {
+        items.forEach(Runnable::run);
+    }
+
+    @Override
+    public void blockquote(String s) {
+    }
+
+    @Override
+    public void codeBlock(String javaCode) {
+    }
+
+    @Override
+    public void showGraphics(String title, GraphicsObject graphics) {
+    }
+
+    @Override
+    public void silence() {
+        silenceLevel--;
+    }
+
+    @Override
+    public void unsilence() {
+        silenceLevel++;
+    }
+
+    @Override
+    public boolean isSilenced() {
+        return silenceLevel < 0;
+    }
+
+    @Override
+    public float themeHue() {
+        return hue;
+    }
+
+    @Override
+    public void setThemeHue(float hue) {
+        this.hue = hue;
+    }
+
+    @Override
+    public void close() {
+    }
+}
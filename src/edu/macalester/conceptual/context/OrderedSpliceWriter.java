@@ -0,0 +1,129 @@
+package edu.macalester.conceptual.context;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A writer that accepts placeholders for text that is still being computed elsewhere (e.g. a
+ * diagram being encoded on a background thread), and splices each one into the output in its
+ * original position once it is ready.
+ * <p>
+ * Text passes straight through to the underlying writer until the first pending placeholder; after
+ * that, it is buffered until everything ahead of it is available, which each write checks without
+ * waiting. {@link #finish()} waits for all placeholders.
+ * <p>
+ * Not thread-safe: all writes should come from one thread. Only the futures complete elsewhere.
+ */
+class OrderedSpliceWriter extends Writer {
+    private final Writer out;
+
+    // Each element is either buffered text (StringBuilder) or a pending splice (Future<String>)
+    private final Deque<Object> pending = new ArrayDeque<>();
+
+    OrderedSpliceWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        drainIfHeadDone();
+        if (pending.isEmpty()) {
+            out.write(chars, offset, length);
+        } else {
+            bufferTail().append(chars, offset, length);
+        }
+    }
+
+    @Override
+    public void write(String str, int offset, int length) throws IOException {
+        drainIfHeadDone();
+        if (pending.isEmpty()) {
+            out.write(str, offset, length);
+        } else {
+            bufferTail().append(str, offset, offset + length);
+        }
+    }
+
+    /**
+     * Reserves the current position in the output for the result of the given future.
+     */
+    void splice(Future<String> content) throws IOException {
+        pending.add(content);
+        drain(false);
+    }
+
+    /**
+     * Writes out everything that is ready, without waiting, and flushes the underlying writer.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain(false);
+        out.flush();
+    }
+
+    /**
+     * Waits for all pending splices and writes everything out.
+     */
+    void finish() throws IOException {
+        drain(true);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private StringBuilder bufferTail() {
+        if (pending.peekLast() instanceof StringBuilder buffer) {
+            return buffer;
+        }
+        var buffer = new StringBuilder();
+        pending.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Catches up on splices that finished since the last call, cheaply enough to do on every write.
+     */
+    private void drainIfHeadDone() throws IOException {
+        if (pending.peekFirst() instanceof Future<?> head && head.isDone()) {
+            drain(false);
+        }
+    }
+
+    private void drain(boolean wait) throws IOException {
+        while (!pending.isEmpty()) {
+            var head = pending.peekFirst();
+            if (head instanceof Future<?> future) {
+                if (!wait && !future.isDone()) {
+                    return;
+                }
+                out.write(String.valueOf(await(future)));
+            } else {
+                out.append((StringBuilder) head);
+            }
+            pending.removeFirst();
+        }
+    }
+
+    private static Object await(Future<?> future) throws IOException {
+        try {
+            return future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch(ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
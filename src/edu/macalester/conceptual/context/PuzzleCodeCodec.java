@@ -0,0 +1,263 @@
+package edu.macalester.conceptual.context;
+
+import java.text.MessageFormat;
+
+/**
+ * Converts {@link PuzzleCode}s to and from the strings the CLI shows the user, using only
+ * <code>long</code> arithmetic: no <code>BigInteger</code>, regexes, or intermediate buffers.
+ * <p>
+ * The puzzle code is a number encoded in base 36 (0-9, a-z) with hyphens for legibility; see
+ * {@link CodeLayout} for the number’s layout. Decoding accepts exactly what the original
+ * <code>BigInteger</code>-based parser did: hyphens anywhere, either case, a leading
+ * <code>+</code>, and non-ASCII digits that <code>Character.digit()</code> understands.
+ */
+enum PuzzleCodeCodec {
+    ; // static utility class; no cases
+
+    private enum CodeLayout {
+        // Once in its numeric form, the number has the following big-endian byte layout:
+        FEATURES(1),     // generator feature bits; omitted (and left out of checksum) when zero
+        PUZZLE_ID(1),    // puzzle ID number
+        DIFFICULTY(1),   // puzzle difficulty
+        RANDOM_SEED(8),  // big-endian long seed for RNG
+        CHECKSUM(1);     // CRC-32 checksum (just low 8 bits; this isn’t bank records)
+
+        static final int TOTAL_SIZE;
+
+        static {
+            int offset = 0;
+            for (var component : values()) {
+                component.offset = offset;
+                offset += component.size;
+            }
+            TOTAL_SIZE = offset;
+            for (var component : values()) {
+                component.shift = (TOTAL_SIZE - component.offset - component.size) * Byte.SIZE;
+            }
+        }
+
+        private final int size;
+        private int offset, shift;  // shift = bit position of the component’s least significant bit
+
+        CodeLayout(int size) {
+            this.size = size;
+        }
+
+        int bits() {
+            return size * Byte.SIZE;
+        }
+    }
+
+    // The whole number fits in 96 bits, which we store as three 32-bit limbs (most significant
+    // first) when doing base 36 math, and as a high word (top 32 bits) and low word for packing.
+    private static final int NUMBER_BITS = 96;
+    private static final long LIMB_MASK = 0xFFFF_FFFFL;
+
+    private static final int
+        RADIX = 36,
+        DIGITS_PER_CHUNK = 5,
+        CHUNK = 36 * 36 * 36 * 36 * 36,  // small enough that (remainder << 32) fits in a long
+        MAX_DIGITS = 19,                 // 36^19 > 2^96
+        GROUP_SIZE = 4;
+
+    // Avoid ambiguous chars (lowercase i and o are fine)
+    private static final char[] DIGIT_CHARS = "0123456789abcdefghijkLmnopqrstuvwxyz".toCharArray();
+    private static final byte[] ASCII_DIGIT_VALUES = new byte[128];
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        if (CodeLayout.TOTAL_SIZE * Byte.SIZE != NUMBER_BITS) {
+            throw new AssertionError("Puzzle code layout does not fit codec");
+        }
+
+        for (int c = 0; c < ASCII_DIGIT_VALUES.length; c++) {
+            ASCII_DIGIT_VALUES[c] = (byte) Character.digit(c, RADIX);
+        }
+
+        for (int n = 0; n < CRC_TABLE.length; n++) {
+            int crc = n;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0xEDB88320 : crc >>> 1;
+            }
+            CRC_TABLE[n] = crc;
+        }
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Encoding
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    static String encode(PuzzleCode code) {
+        var result = new StringBuilder(MAX_DIGITS + MAX_DIGITS / GROUP_SIZE);
+        encode(code, result, new char[MAX_DIGITS]);
+        return result.toString();
+    }
+
+    private static void encode(PuzzleCode code, StringBuilder out, char[] digits) {
+        long hi = 0, lo = 0;
+        hi = putHi(hi, CodeLayout.FEATURES, code.features());
+        hi = putHi(hi, CodeLayout.PUZZLE_ID, code.puzzleID());
+        hi = putHi(hi, CodeLayout.DIFFICULTY, code.difficulty());
+        hi = putHi(hi, CodeLayout.RANDOM_SEED, code.seed());
+        lo = putLo(lo, CodeLayout.RANDOM_SEED, code.seed());
+        lo = putLo(lo, CodeLayout.CHECKSUM, computeChecksum(hi, lo));
+
+        // Digits, least significant first, dividing the number by 36^5 one limb at a time
+        long a = hi, b = lo >>> 32, c = lo & LIMB_MASK;
+        int pos = digits.length;
+        boolean done;
+        do {
+            long remainder = a % CHUNK;
+            a /= CHUNK;
+            b |= remainder << 32;
+            remainder = b % CHUNK;
+            b /= CHUNK;
+            c |= remainder << 32;
+            int chunk = (int) (c % CHUNK);
+            c /= CHUNK;
+
+            done = (a | b | c) == 0;
+            for (int n = 0; n < DIGITS_PER_CHUNK; n++) {
+                digits[--pos] = DIGIT_CHARS[chunk % RADIX];
+                chunk /= RADIX;
+                if (done && chunk == 0) {
+                    break;  // no leading zeros
+                }
+            }
+        } while (!done);
+
+        for (int i = pos; i < digits.length; i++) {
+            if (i > pos && (i - pos) % GROUP_SIZE == 0) {
+                out.append('-');
+            }
+            out.append(digits[i]);
+        }
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Decoding
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    static PuzzleCode decode(CharSequence puzzleCode) throws InvalidPuzzleCodeException {
+        long a = 0, b = 0, c = 0;
+        boolean anyDigits = false, signAllowed = true, tooLong = false;
+        for (int i = 0; i < puzzleCode.length(); i++) {
+            char ch = puzzleCode.charAt(i);
+            if (ch == '-') {
+                continue;
+            }
+            if (ch == '+' && signAllowed) {
+                signAllowed = false;
+                continue;
+            }
+            signAllowed = false;
+
+            int digit = ch < ASCII_DIGIT_VALUES.length
+                ? ASCII_DIGIT_VALUES[ch]
+                : Character.digit(ch, RADIX);
+            if (digit < 0) {
+                throw new InvalidPuzzleCodeException("Invalid format; this does not look like a puzzle code");
+            }
+            anyDigits = true;
+
+            if (!tooLong) {  // once too long, only check that the rest is well-formed
+                c = c * RADIX + digit;
+                b = b * RADIX + (c >>> 32);
+                a = a * RADIX + (b >>> 32);
+                c &= LIMB_MASK;
+                b &= LIMB_MASK;
+                tooLong = a >>> 31 != 0;  // high bit set would make the number negative
+            }
+        }
+        if (!anyDigits) {
+            throw new InvalidPuzzleCodeException("Invalid format; this does not look like a puzzle code");
+        }
+        if (tooLong) {
+            throw new InvalidPuzzleCodeException("Seed code is too long");
+        }
+
+        long hi = a, lo = (b << 32) | c;
+        byte checksum = (byte) get(hi, lo, CodeLayout.CHECKSUM);
+        lo = putLo(lo, CodeLayout.CHECKSUM, 0);  // checksum was computed when field was 0
+        byte expectedChecksum = computeChecksum(hi, lo);
+        if (checksum != expectedChecksum) {
+            throw new InvalidPuzzleCodeException(
+                MessageFormat.format(
+                    "Checksum does not match; is there a typo? ({0} != {1})",
+                    checksum, expectedChecksum));
+        }
+
+        byte features = (byte) get(hi, lo, CodeLayout.FEATURES);
+        if (!GeneratorFeature.isSupported(features)) {
+            throw new InvalidPuzzleCodeException(
+                "This puzzle code uses generator features that this version does not support;"
+                    + " try updating the puzzle generator");
+        }
+
+        return new PuzzleCode(
+            (byte) get(hi, lo, CodeLayout.PUZZLE_ID),
+            (byte) get(hi, lo, CodeLayout.DIFFICULTY),
+            get(hi, lo, CodeLayout.RANDOM_SEED),
+            features);
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Bit packing
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    private static long mask(int bits) {
+        return bits == Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    /**
+     * Returns the bits of the high word with the given component set to the given value.
+     */
+    private static long putHi(long hi, CodeLayout component, long value) {
+        value &= mask(component.bits());
+        if (component.shift >= Long.SIZE) {
+            return hi | value << (component.shift - Long.SIZE);
+        } else if (component.shift + component.bits() > Long.SIZE) {
+            return hi | value >>> (Long.SIZE - component.shift);
+        } else {
+            return hi;
+        }
+    }
+
+    /**
+     * Returns the bits of the low word with the given component set to the given value.
+     */
+    private static long putLo(long lo, CodeLayout component, long value) {
+        if (component.shift >= Long.SIZE) {
+            return lo;
+        }
+        long mask = mask(component.bits()) << component.shift;
+        return (lo & ~mask) | (value << component.shift & mask);
+    }
+
+    private static long get(long hi, long lo, CodeLayout component) {
+        int shift = component.shift;
+        long bits;
+        if (shift >= Long.SIZE) {
+            bits = hi >>> (shift - Long.SIZE);
+        } else if (shift == 0) {
+            bits = lo;
+        } else {
+            bits = lo >>> shift | hi << (Long.SIZE - shift);
+        }
+        return bits & mask(component.bits());
+    }
+
+    private static byte computeChecksum(long hi, long lo) {
+        // Codes without features predate the features byte, and their checksums don’t include it
+        int start = get(hi, lo, CodeLayout.FEATURES) == 0
+            ? CodeLayout.FEATURES.offset + CodeLayout.FEATURES.size
+            : 0;
+        int crc = ~0;
+        for (int i = start; i < CodeLayout.TOTAL_SIZE; i++) {
+            int bitPos = (CodeLayout.TOTAL_SIZE - 1 - i) * Byte.SIZE;
+            int b = (int) (bitPos >= Long.SIZE ? hi >>> (bitPos - Long.SIZE) : lo >>> bitPos);
+            crc = CRC_TABLE[(crc ^ b) & 0xFF] ^ (crc >>> 8);
+        }
+        return (byte) ~crc;
+    }
+}
@@ -22,6 +22,7 @@ public final class PuzzleContext {
     private static final SecureRandom seedGenerator = new SecureRandom();
 
     private final PuzzleCode code;
+    private final Set<GeneratorFeature> features;
     private final Random rand;
 
     private String puzzleTitle;
@@ -37,12 +38,23 @@ public final class PuzzleContext {
     private Set<Integer> partsToShow;
 
     private final Set<String> identifiersUsed = new HashSet<>();
+    private final WordFingerprintSet scopedIdentifiersUsed;  // replaces identifiersUsed if non-null
 
     /**
      * Creates a new, randomly seeded puzzle context for generating a new puzzle.
      */
     public static PuzzleContext generate(byte puzzleID, byte difficulty) {
-        return new PuzzleContext(new PuzzleCode(puzzleID, difficulty, seedGenerator.nextLong()));
+        return generate(puzzleID, difficulty, Set.of());
+    }
+
+    /**
+     * Creates a new, randomly seeded puzzle context that uses the given generator features. The
+     * features become part of the puzzle code.
+     */
+    public static PuzzleContext generate(byte puzzleID, byte difficulty, Set<GeneratorFeature> features) {
+        return new PuzzleContext(
+            new PuzzleCode(
+                puzzleID, difficulty, seedGenerator.nextLong(), GeneratorFeature.toBits(features)));
     }
 
     /**
@@ -54,7 +66,13 @@ public final class PuzzleContext {
 
     PuzzleContext(PuzzleCode code) {
         this.code = code;
-        rand = new Random(code.seed());
+        features = GeneratorFeature.fromBits(code.features());
+        rand = features.contains(GeneratorFeature.L64X128_RANDOM)
+            ? RandomGeneratorFacade.l64x128Mix(code.seed())
+            : new Random(code.seed());
+        scopedIdentifiersUsed = features.contains(GeneratorFeature.SCOPED_IDENTIFIERS)
+            ? new WordFingerprintSet()
+            : null;
     }
 
     public PuzzleContext cleanCopy() {
@@ -73,6 +91,13 @@ public final class PuzzleContext {
         return code.difficulty();
     }
 
+    /**
+     * Returns true if this puzzle should generate using the given feature.
+     */
+    public boolean hasFeature(GeneratorFeature feature) {
+        return features.contains(feature);
+    }
+
     public void setPuzzleTitle(String puzzleTitle) {
         this.puzzleTitle = puzzleTitle;
     }
@@ -184,9 +209,16 @@ public final class PuzzleContext {
         return output().themeHue();
     }
 
+    /**
+     * Starts a new repetition of the puzzle. With {@link GeneratorFeature#SCOPED_IDENTIFIERS}, this
+     * also forgets which identifiers the previous repetitions used.
+     */
     public void resetSectionCounter() {
         requireState(State.WORKING, "produce output");
         curPartNum = 0;
+        if (scopedIdentifiersUsed != null) {
+            scopedIdentifiersUsed.clear();
+        }
         output().dividerLine(true);
         output().dividerLine(true);
     }
@@ -216,8 +248,10 @@ public final class PuzzleContext {
 
         try {
             insideSolution = true;
+            output().solutionStart();
             output().heading("Solution", false);
             action.run();
+            output().solutionEnd();
         } finally {
             insideSolution = false;
         }
@@ -253,11 +287,17 @@ public final class PuzzleContext {
     }
 
     public boolean isIdentifierAlreadyUsed(String ident) {
-        return identifiersUsed.contains(ident);
+        return scopedIdentifiersUsed != null
+            ? scopedIdentifiersUsed.contains(ident)
+            : identifiersUsed.contains(ident);
     }
 
     public void useIdentifier(String ident) {
-        identifiersUsed.add(ident);
+        if (scopedIdentifiersUsed != null) {
+            scopedIdentifiersUsed.add(ident);
+        } else {
+            identifiersUsed.add(ident);
+        }
     }
 
     // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
@@ -139,6 +139,17 @@ public interface PuzzlePrinter extends Closeable {
      */
     void showGraphics(String title, GraphicsObject graphics);
 
+    /**
+     * Marks the start of a puzzle’s solution, for printers that distinguish it structurally. Called
+     * by {@link PuzzleContext#solution}; puzzles should not call this directly.
+     */
+    default void solutionStart() { }
+
+    /**
+     * Marks the end of the solution started by {@link #solutionStart()}.
+     */
+    default void solutionEnd() { }
+
     /**
      * Suppresses further output until balanced by a call to {@link #unsilence()}. Calls to
      * silence/unsilence are nestable.
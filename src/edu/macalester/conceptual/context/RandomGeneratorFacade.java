@@ -0,0 +1,128 @@
+package edu.macalester.conceptual.context;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Presents any {@link RandomGenerator} as a <code>java.util.Random</code>, so that puzzles can keep
+ * using {@link PuzzleContext#getRandom()} unchanged when a puzzle code selects a newer algorithm.
+ * Every public method delegates to the wrapped generator; none of them touch <code>Random</code>’s
+ * own seed, so draws skip its atomic compare-and-set.
+ */
+final class RandomGeneratorFacade extends Random {
+    private static final String L64X128_MIX = "L64X128MixRandom";
+
+    private final RandomGenerator generator;
+
+    /**
+     * Creates an <code>L64X128MixRandom</code> generator. The same seed always gives the same
+     * sequence of numbers, on any Java version that has the algorithm.
+     */
+    static Random l64x128Mix(long seed) {
+        return new RandomGeneratorFacade(RandomGeneratorFactory.of(L64X128_MIX).create(seed));
+    }
+
+    RandomGeneratorFacade(RandomGenerator generator) {
+        super(0);
+        this.generator = generator;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // Random’s constructor calls this before the generator exists; ignore that one call
+        if (generator != null) {
+            throw new UnsupportedOperationException("Cannot reseed a " + L64X128_MIX + " facade");
+        }
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (generator.nextLong() >>> (Long.SIZE - bits));
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        generator.nextBytes(bytes);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return generator.nextBoolean();
+    }
+
+    @Override
+    public int nextInt() {
+        return generator.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return generator.nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        return generator.nextInt(origin, bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return generator.nextLong();
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        return generator.nextLong(bound);
+    }
+
+    @Override
+    public long nextLong(long origin, long bound) {
+        return generator.nextLong(origin, bound);
+    }
+
+    @Override
+    public float nextFloat() {
+        return generator.nextFloat();
+    }
+
+    @Override
+    public float nextFloat(float bound) {
+        return generator.nextFloat(bound);
+    }
+
+    @Override
+    public float nextFloat(float origin, float bound) {
+        return generator.nextFloat(origin, bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return generator.nextDouble();
+    }
+
+    @Override
+    public double nextDouble(double bound) {
+        return generator.nextDouble(bound);
+    }
+
+    @Override
+    public double nextDouble(double origin, double bound) {
+        return generator.nextDouble(origin, bound);
+    }
+
+    @Override
+    public double nextGaussian() {
+        return generator.nextGaussian();
+    }
+
+    @Override
+    public double nextGaussian(double mean, double stddev) {
+        return generator.nextGaussian(mean, stddev);
+    }
+
+    @Override
+    public double nextExponential() {
+        return generator.nextExponential();
+    }
+}
@@ -0,0 +1,278 @@
+package edu.macalester.conceptual.context;
+
+import com.google.common.escape.Escaper;
+import com.google.common.html.HtmlEscapers;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Paint;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.macalester.graphics.Fillable;
+import edu.macalester.graphics.GraphicsGroup;
+import edu.macalester.graphics.GraphicsObject;
+import edu.macalester.graphics.GraphicsText;
+import edu.macalester.graphics.Line;
+import edu.macalester.graphics.Path;
+import edu.macalester.graphics.Point;
+import edu.macalester.graphics.Rectangle;
+import edu.macalester.graphics.Strokable;
+
+/**
+ * Converts a kilt-graphics scene graph to inline SVG markup, so that HTML output can embed diagrams
+ * as vectors instead of rasterizing them. Handles the node types the puzzles actually use; for
+ * anything else, {@link #render} throws {@link UnsupportedGraphicsException} and the caller should
+ * fall back to a bitmap.
+ */
+class SvgRenderer {
+    private static final Escaper escaper = HtmlEscapers.htmlEscaper();
+
+    private final StringBuilder svg = new StringBuilder();
+
+    /**
+     * Returns an <code>&lt;svg&gt;</code> element showing the given graphics at their natural size,
+     * cropped to their bounds.
+     */
+    static String render(GraphicsObject graphics) throws UnsupportedGraphicsException {
+        return render(graphics, null);
+    }
+
+    /**
+     * Same as {@link #render(GraphicsObject)}, but gives the root element the given ID (if not null)
+     * so that the document can show the same graphics again using {@link #reference}.
+     */
+    static String render(GraphicsObject graphics, String id) throws UnsupportedGraphicsException {
+        var bounds = graphics.getBounds();
+        var renderer = new SvgRenderer();
+        renderer.svg.append("<svg xmlns='http://www.w3.org/2000/svg'");
+        if (id != null) {
+            renderer.svg.append(" id='").append(escaper.escape(id)).append("'");
+        }
+        renderer.svg
+            .append(" width='").append((int) Math.ceil(bounds.getWidth())).append("'")
+            .append(" height='").append((int) Math.ceil(bounds.getHeight())).append("'")
+            .append(" viewBox='")
+                .append(num(bounds.getMinX())).append(' ').append(num(bounds.getMinY())).append(' ')
+                .append(num(bounds.getWidth())).append(' ').append(num(bounds.getHeight()))
+            .append("'>\n");
+        renderer.renderNode(graphics, false);  // like the bitmap path, the root’s position is ignored
+        renderer.svg.append("</svg>");
+        return renderer.svg.toString();
+    }
+
+    /**
+     * Returns an <code>&lt;svg&gt;</code> element that shows another copy of graphics that the same
+     * document already contains, rendered with the given ID.
+     */
+    static String reference(GraphicsObject graphics, String id) {
+        var bounds = graphics.getBounds();
+        return "<svg xmlns='http://www.w3.org/2000/svg'"
+            + " width='" + (int) Math.ceil(bounds.getWidth()) + "'"
+            + " height='" + (int) Math.ceil(bounds.getHeight()) + "'>"
+            + "<use href='#" + escaper.escape(id) + "'/></svg>";
+    }
+
+    private void renderNode(GraphicsObject node, boolean includePosition)
+        throws UnsupportedGraphicsException {
+        var transform = transform(node, includePosition);
+        if (node instanceof GraphicsGroup group) {
+            svg.append("<g").append(transform).append(">\n");
+            for (var child : group) {
+                renderNode(child, true);
+            }
+            svg.append("</g>\n");
+        } else if (node instanceof Rectangle rect) {
+            var bounds = rect.getBounds();
+            svg.append("<rect")
+                .append(attr("x", bounds.getMinX()))
+                .append(attr("y", bounds.getMinY()))
+                .append(attr("width", bounds.getWidth()))
+                .append(attr("height", bounds.getHeight()));
+            appendFillAndStroke(rect, rect);
+            svg.append(transform).append("/>\n");
+        } else if (node instanceof Line line) {
+            svg.append("<line")
+                .append(attr("x1", line.getX1()))
+                .append(attr("y1", line.getY1()))
+                .append(attr("x2", line.getX2()))
+                .append(attr("y2", line.getY2()));
+            appendFillAndStroke(null, line);
+            svg.append(transform).append("/>\n");
+        } else if (node instanceof Path path) {
+            svg.append(path.isClosed() ? "<polygon" : "<polyline")
+                .append(" points='")
+                .append(path.getVertices().stream()
+                    .map(p -> num(p.getX()) + "," + num(p.getY()))
+                    .collect(Collectors.joining(" ")))
+                .append("'");
+            appendFillAndStroke(path, path);
+            svg.append(transform).append("/>\n");
+        } else if (node instanceof GraphicsText text) {
+            renderText(text, transform);
+        } else {
+            throw new UnsupportedGraphicsException(node);
+        }
+    }
+
+    private void renderText(GraphicsText text, String transform)
+        throws UnsupportedGraphicsException {
+        var font = text.getFont();
+        svg.append("<text")
+            .append(" font-family='").append(escaper.escape(cssFontFamily(font))).append("'")
+            .append(attr("font-size", font.getSize2D()));
+        if (font.isBold()) {
+            svg.append(" font-weight='bold'");
+        }
+        if (font.isItalic()) {
+            svg.append(" font-style='italic'");
+        }
+        switch (text.getAlignment()) {
+            case CENTER -> svg.append(" text-anchor='middle'");
+            case RIGHT -> svg.append(" text-anchor='end'");
+            default -> { }  // SVG default is start
+        }
+        svg.append(" fill='").append(color(text.getFillColor())).append("'");
+        appendOpacity("fill-opacity", text.getFillColor());
+        svg.append(transform).append(">");
+
+        // Multi-line text: each line after the first moves down by the line height
+        var lines = text.getText().split("\n", -1);
+        for (int n = 0; n < lines.length; n++) {
+            if (lines.length == 1) {
+                svg.append(escaper.escape(lines[n]));
+            } else {
+                svg.append("<tspan x='0'")
+                    .append(n == 0 ? "" : attr("dy", text.getLineHeight()))
+                    .append(">")
+                    .append(escaper.escape(lines[n]))
+                    .append("</tspan>");
+            }
+        }
+        svg.append("</text>\n");
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Attributes
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    /**
+     * Reproduces kilt-graphics’ transform order: translate to position, then rotate and scale
+     * around the anchor.
+     */
+    private static String transform(GraphicsObject node, boolean includePosition) {
+        var result = new StringBuilder();
+        var position = node.getPosition();
+        if (includePosition && (position.getX() != 0 || position.getY() != 0)) {
+            result.append("translate(").append(num(position)).append(") ");
+        }
+
+        var scale = node.getScale();
+        boolean scaled = scale.getX() != 1 || scale.getY() != 1;
+        if (node.getRotation() != 0 || scaled) {
+            var anchor = node.getAnchor();
+            boolean anchored = anchor.getX() != 0 || anchor.getY() != 0;
+            if (anchored) {
+                result.append("translate(").append(num(anchor)).append(") ");
+            }
+            if (node.getRotation() != 0) {
+                result.append("rotate(").append(num(node.getRotation())).append(") ");
+            }
+            if (scaled) {
+                result.append("scale(").append(num(scale)).append(") ");
+            }
+            if (anchored) {
+                result.append("translate(")
+                    .append(num(-anchor.getX())).append(' ').append(num(-anchor.getY()))
+                    .append(")");
+            }
+        }
+
+        return result.isEmpty()
+            ? ""
+            : " transform='" + result.toString().trim() + "'";
+    }
+
+    private void appendFillAndStroke(Fillable fillable, Strokable strokable)
+        throws UnsupportedGraphicsException {
+        if (fillable != null && fillable.isFilled() && fillable.getFillColor() != null) {
+            svg.append(" fill='").append(color(fillable.getFillColor())).append("'");
+            appendOpacity("fill-opacity", fillable.getFillColor());
+        } else {
+            svg.append(" fill='none'");
+        }
+        if (strokable.isStroked() && strokable.getStrokeColor() != null) {
+            svg.append(" stroke='").append(color(strokable.getStrokeColor())).append("'")
+                .append(attr("stroke-width", strokable.getStrokeWidth()));
+            appendOpacity("stroke-opacity", strokable.getStrokeColor());
+        }
+    }
+
+    private void appendOpacity(String attrName, Paint paint) {
+        if (paint instanceof Color color && color.getAlpha() != 255) {
+            svg.append(attr(attrName, color.getAlpha() / 255.0));
+        }
+    }
+
+    private static String color(Paint paint) throws UnsupportedGraphicsException {
+        if (paint instanceof Color color) {
+            return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+        }
+        throw new UnsupportedGraphicsException(paint);  // e.g. gradients
+    }
+
+    /**
+     * Converts a Java font name, which may be a comma-separated list of families, to a CSS font
+     * family list, translating Java’s logical font names to their CSS equivalents.
+     */
+    private static String cssFontFamily(Font font) {
+        return Stream.of(font.getName().split(","))
+            .map(String::trim)
+            .map(family -> switch (family.toLowerCase(Locale.ROOT)) {
+                case "monospaced" -> "monospace";
+                case "sansserif", "sans serif", "sans", "dialog", "dialoginput" -> "sans-serif";
+                case "serif" -> "serif";
+                default -> family.contains(" ") ? "\"" + family + "\"" : family;
+            })
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String attr(String name, double value) {
+        return " " + name + "='" + num(value) + "'";
+    }
+
+    private static String num(Point point) {
+        return num(point.getX()) + " " + num(point.getY());
+    }
+
+    /**
+     * Formats a coordinate compactly: at most 2 decimal places, no trailing zeros, no exponent.
+     */
+    private static String num(double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths == 0) {
+            return "0";
+        }
+        var result = new StringBuilder(hundredths < 0 ? "-" : "");
+        hundredths = Math.abs(hundredths);
+        result.append(hundredths / 100);
+        long fraction = hundredths % 100;
+        if (fraction != 0) {
+            result.append('.').append(fraction / 10);
+            if (fraction % 10 != 0) {
+                result.append(fraction % 10);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Indicates that a scene graph contains something that this class can’t express in SVG.
+     */
+    static class UnsupportedGraphicsException extends Exception {
+        UnsupportedGraphicsException(Object unsupported) {
+            super("Cannot render as SVG: " + unsupported.getClass().getName());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.macalester.conceptual.context;
 
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Parses the mini-markdown-style delimiters within a paragraph for `code`, *bold*, and _italics_.
@@ -11,49 +12,41 @@ record TextFormatter(
     Style italics,
     Style placeholder
 ) {
-    private static final Pattern
-        CODE_DELIM        = inlineDelimited("`"),  
-        BOLD_DELIM        = inlineDelimited("\\*"),
-        ITALICS_DELIM     = inlineDelimited("_"),
-        PLACEHOLDER_DELIM = inlineDelimited("___", "(?:/\\*)?", "(?:\\*/)?");
-
-    private static Pattern inlineDelimited(String delimiter) {
-        return inlineDelimited(delimiter, "", "");
-    }
+    private static final Delimiter
+        CODE_DELIM        = new Delimiter("`"),
+        BOLD_DELIM        = new Delimiter("*"),
+        ITALICS_DELIM     = new Delimiter("_"),
+        PLACEHOLDER_DELIM = new Delimiter("___", "/*", "*/");
 
-    private static Pattern inlineDelimited(String delimiter, String prefix, String suffix) {
-        return Pattern.compile(
-            prefix        // The prefix-only delimiter (usually blank) and
-            + delimiter   // the delimiter
-            + "(?!\\s)"   // not follow by a space,
-            + "(.+?)"     // then the shortest section of matching text
-            + "(?<!\\s)"  // not ending with a space
-            + delimiter   // and terminated with the delimiter
-            + suffix      // and the suffix (also usually blank)
-        );
+    TextFormatter {
+        code.requireCanReplace(CODE_DELIM);
+        bold.requireCanReplace(BOLD_DELIM);
+        italics.requireCanReplace(ITALICS_DELIM);
+        placeholder.requireCanReplace(PLACEHOLDER_DELIM);
     }
 
     public String format(String text) {
         // strip internal line breaks; callers should use paragraph()
-        text = text.strip().replaceAll("\\s+", " ");
-
-        text = formatCodePlaceholders(text);
-
-        text = CODE_DELIM.matcher(text).replaceAll((match) ->
-            code.wrap(match.group(1)));
-
-        text = BOLD_DELIM .matcher(text).replaceAll((match) ->
-            bold.wrap(match.group(1)));
-
-        text = ITALICS_DELIM.matcher(text).replaceAll((match) ->
-            italics.wrap(match.group(1)));
+        text = collapseWhitespace(text.strip());
+        if (!CODE_DELIM.occursIn(text) && !BOLD_DELIM.occursIn(text) && !ITALICS_DELIM.occursIn(text)) {
+            return text;  // fast path: nothing to format
+        }
 
-        return text;
+        var markup = new Markup(text);
+        PLACEHOLDER_DELIM.findSpans(markup, placeholder);
+        CODE_DELIM.findSpans(markup, code);
+        BOLD_DELIM.findSpans(markup, bold);
+        ITALICS_DELIM.findSpans(markup, italics);
+        return markup.toString();
     }
 
     public String formatCodePlaceholders(String code) {
-        return PLACEHOLDER_DELIM.matcher(code).replaceAll((match) ->
-            placeholder.wrap(match.group(1)));
+        if (!PLACEHOLDER_DELIM.occursIn(code)) {
+            return code;
+        }
+        var markup = new Markup(code);
+        PLACEHOLDER_DELIM.findSpans(markup, placeholder);
+        return markup.toString();
     }
 
     public record Style(
@@ -63,5 +56,268 @@ record TextFormatter(
         String wrap(String s) {
             return prefix + s + suffix;
         }
+
+        /**
+         * Checks that {@link Markup} can stand in for this style’s prefix and suffix with a masked
+         * delimiter run. They must not contain delimiters or line breaks, and must be non-empty;
+         * if the delimiter is a single character, each must start and end with the same kind of
+         * character (space or non-space).
+         */
+        private void requireCanReplace(Delimiter delim) {
+            for (var affix : List.of(prefix, suffix)) {
+                if (affix.isEmpty()
+                    || affix.chars().anyMatch(c ->
+                        c == '`' || c == '*' || c == '_' || isLineTerminator((char) c))
+                    || (delim.delimiter.length() == 1
+                        && isSpace(affix.charAt(0)) != isSpace(affix.charAt(affix.length() - 1)))
+                ) {
+                    throw new IllegalArgumentException(
+                        "Style cannot replace " + delim.delimiter + " delimiters: " + this);
+                }
+            }
+        }
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Scanning
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    /**
+     * Replaces each run of regex whitespace (<code>\s</code>) with a single space, returning the
+     * original string if there is nothing to change.
+     */
+    private static String collapseWhitespace(String text) {
+        int n = text.length();
+        int i = 0;
+        while (i < n && !(isSpace(text.charAt(i)) && (text.charAt(i) != ' '
+            || (i + 1 < n && isSpace(text.charAt(i + 1)))))) {
+            i++;
+        }
+        if (i == n) {
+            return text;
+        }
+
+        var result = new StringBuilder(n);
+        result.append(text, 0, i);
+        while (i < n) {
+            char c = text.charAt(i++);
+            if (isSpace(c)) {
+                while (i < n && isSpace(text.charAt(i))) {
+                    i++;
+                }
+                result.append(' ');
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * The spans found so far in a piece of text, which are all written out in one pass by
+     * {@link #toString}.
+     * <p>
+     * Each delimiter finds its spans in turn, and sees the spans found before it as if their styles
+     * were already applied, so spans nest (and sometimes overlap) exactly as they did when each style
+     * was a separate regex pass over the previous one’s output. Rather than build that output, the
+     * scan masks each replaced delimiter run in a copy of the original text. The delimiter rules
+     * only ask whether a character is a delimiter, a space, or a line break, and only at the edges
+     * of a replacement, so the mask keeps the kind of the replacement’s first and last characters
+     * and is otherwise an inert non-space.
+     */
+    private static final class Markup {
+        private static final char MASKED = '\uFFFF';
+
+        private final String text;
+        private final char[] chars;  // text, with the delimiters of the spans found so far masked
+        private int[] runs = new int[16];  // start and end of each replaced delimiter run, in order
+        private String[] replacements = new String[8];
+        private int runCount, lengthChange;
+
+        Markup(String text) {
+            this.text = text;
+            this.chars = text.toCharArray();
+        }
+
+        void replace(int start, int end, String replacement) {
+            Arrays.fill(chars, start, end, MASKED);
+            chars[start] = mask(replacement.charAt(0));
+            chars[end - 1] = mask(replacement.charAt(replacement.length() - 1));
+
+            if (runCount == replacements.length) {
+                runs = Arrays.copyOf(runs, runs.length * 2);
+                replacements = Arrays.copyOf(replacements, replacements.length * 2);
+            }
+            int index = runCount;
+            while (index > 0 && runs[2 * index - 2] > start) {  // usually appends
+                index--;
+            }
+            System.arraycopy(runs, 2 * index, runs, 2 * index + 2, 2 * (runCount - index));
+            System.arraycopy(replacements, index, replacements, index + 1, runCount - index);
+            runs[2 * index] = start;
+            runs[2 * index + 1] = end;
+            replacements[index] = replacement;
+            runCount++;
+            lengthChange += replacement.length() - (end - start);
+        }
+
+        private static char mask(char c) {
+            return isSpace(c) ? ' ' : MASKED;
+        }
+
+        @Override
+        public String toString() {
+            if (runCount == 0) {
+                return text;
+            }
+            var result = new StringBuilder(text.length() + lengthChange);
+            int copiedUpTo = 0;
+            for (int i = 0; i < runCount; i++) {
+                result.append(text, copiedUpTo, runs[2 * i]).append(replacements[i]);
+                copiedUpTo = runs[2 * i + 1];
+            }
+            return result.append(text, copiedUpTo, text.length()).toString();
+        }
+    }
+
+    /**
+     * One styled span type.
+     * <p>
+     * The matching rules are those of the regex
+     * <code>prefix? delim (?!\s) (.+?) (?&lt;!\s) delim suffix?</code>: a span opens at the leftmost
+     * delimiter not followed by a space, and closes at the nearest delimiter not preceded by one,
+     * without crossing a line break. The content is copied literally.
+     */
+    private static class Delimiter {
+        private final String delimiter, prefix, suffix;
+
+        Delimiter(String delimiter) {
+            this(delimiter, "", "");
+        }
+
+        Delimiter(String delimiter, String prefix, String suffix) {
+            this.delimiter = delimiter;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        boolean occursIn(String text) {
+            return text.contains(delimiter);
+        }
+
+        /**
+         * Finds the spans in the text that earlier delimiters have left unmasked.
+         */
+        void findSpans(Markup markup, Style style) {
+            if (!occursIn(markup.text)) {
+                return;
+            }
+            var chars = markup.chars;
+            for (int start = candidateAt(chars, 0); start >= 0; ) {
+                int contentStart = openingAt(chars, start);
+                int contentEnd = contentStart < 0 ? -1 : closingAfter(chars, contentStart);
+                if (contentEnd < 0) {
+                    start = candidateAt(chars, start + 1);
+                    continue;
+                }
+
+                int end = contentEnd + delimiter.length();
+                if (!suffix.isEmpty() && startsWith(chars, suffix, end)) {
+                    end += suffix.length();
+                }
+
+                markup.replace(start, contentStart, style.prefix());
+                markup.replace(contentEnd, end, style.suffix());
+                start = candidateAt(chars, end);
+            }
+        }
+
+        /**
+         * Returns the first index at or after the given one where a span could possibly start, or -1
+         * if there is none.
+         */
+        private int candidateAt(char[] chars, int from) {
+            int index = indexOf(chars, delimiter, from);
+            if (index < 0) {
+                return -1;
+            }
+            int prefixStart = index - prefix.length();
+            return !prefix.isEmpty() && prefixStart >= from && startsWith(chars, prefix, prefixStart)
+                ? prefixStart
+                : index;
+        }
+
+        /**
+         * If an opening delimiter (with optional prefix) starts at the given index, returns the index
+         * where the span’s content would begin; else -1.
+         */
+        private int openingAt(char[] chars, int index) {
+            int contentStart;
+            if (!prefix.isEmpty() && startsWith(chars, prefix, index)
+                && startsWith(chars, delimiter, index + prefix.length())
+            ) {
+                contentStart = index + prefix.length() + delimiter.length();
+            } else if (startsWith(chars, delimiter, index)) {
+                contentStart = index + delimiter.length();
+            } else {
+                return -1;
+            }
+            return contentStart < chars.length && !isSpace(chars[contentStart])
+                ? contentStart
+                : -1;
+        }
+
+        /**
+         * Returns the index of the nearest valid closing delimiter for content starting at the given
+         * index, or -1 if there is none.
+         */
+        private int closingAfter(char[] chars, int contentStart) {
+            for (int end = contentStart + 1; end < chars.length; end++) {
+                char last = chars[end - 1];
+                if (isLineTerminator(last)) {
+                    return -1;  // regex . doesn’t match line breaks
+                }
+                if (!isSpace(last) && startsWith(chars, delimiter, end)) {
+                    return end;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static int indexOf(char[] chars, String s, int from) {
+        char first = s.charAt(0);
+        for (int i = Math.max(from, 0); i <= chars.length - s.length(); i++) {
+            if (chars[i] == first && startsWith(chars, s, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(char[] chars, String s, int at) {
+        if (at < 0 || at + s.length() > chars.length) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (chars[at + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as regex <code>\s</code> (without UNICODE_CHARACTER_CLASS).
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Same as the characters regex <code>.</code> excludes (without DOTALL or UNIX_LINES).
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 }
@@ -0,0 +1,99 @@
+package edu.macalester.conceptual.context;
+
+import java.util.Arrays;
+
+/**
+ * A compact set of words, stored as 64-bit hashes in an open-addressed table instead of as
+ * strings. Used for {@link GeneratorFeature#SCOPED_IDENTIFIERS}.
+ * <p>
+ * Two different words can in principle share a fingerprint, in which case the set reports the
+ * second as present. That only ever causes an extra rejection, and it is deterministic, so the same
+ * puzzle code still generates the same puzzle.
+ */
+final class WordFingerprintSet {
+    private static final int INITIAL_CAPACITY = 64;  // must be a power of 2
+    private static final long EMPTY = 0;
+
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int size;
+
+    boolean contains(CharSequence word) {
+        long fingerprint = fingerprint(word);
+        int mask = table.length - 1;
+        for (int i = (int) fingerprint & mask; ; i = (i + 1) & mask) {
+            if (table[i] == fingerprint) {
+                return true;
+            }
+            if (table[i] == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds the word, returning false if it was already present.
+     */
+    boolean add(CharSequence word) {
+        if ((size + 1) * 2 > table.length) {  // keep the load factor at most 1/2
+            grow();
+        }
+        boolean added = insert(table, fingerprint(word));
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all words, keeping the table’s current capacity.
+     */
+    void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        var newTable = new long[table.length * 2];
+        for (long fingerprint : table) {
+            if (fingerprint != EMPTY) {
+                insert(newTable, fingerprint);
+            }
+        }
+        table = newTable;
+    }
+
+    private static boolean insert(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        for (int i = (int) fingerprint & mask; ; i = (i + 1) & mask) {
+            if (table[i] == fingerprint) {
+                return false;
+            }
+            if (table[i] == EMPTY) {
+                table[i] = fingerprint;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a over the word’s chars, then a final avalanche so that the low bits (which pick the
+     * table slot) depend on every char. Never returns {@link #EMPTY}.
+     */
+    static long fingerprint(CharSequence word) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1 : hash;
+    }
+}
@@ -0,0 +1,156 @@
+package edu.macalester.conceptual.context;
+
+import java.io.PrintWriter;
+
+/**
+ * The word wrapping engine behind {@link ConsolePuzzlePrinter}. Scans each string once, splitting
+ * it into space-separated words and measuring their display width (ignoring ANSI escape codes) as
+ * it goes, and writes each word directly to the output without intermediate copies.
+ * <p>
+ * Rules:
+ * <ul>
+ *   <li>CRLF line breaks become LF, and each LF ends the current line.</li>
+ *   <li>When wrapping, a word that would reach the output width starts a new line, and trailing
+ *       spaces at the end of a line are dropped.</li>
+ *   <li>The indent is written at the start of each line that has any output, including empty
+ *       output.</li>
+ * </ul>
+ */
+class WordWrapper {
+    private static final char ESC = '\u001b';
+
+    private final PrintWriter out;
+    private final int width;
+    private int column;
+    private int scannedWidth;  // output of scan(), to avoid allocating a result object
+
+    WordWrapper(PrintWriter out, int width) {
+        this.out = out;
+        this.width = width;
+    }
+
+    int width() {
+        return width;
+    }
+
+    /**
+     * Writes the given text, preceding each line with <code>indent</code> and (if <code>wrap</code>
+     * is true) breaking lines between words.
+     */
+    void print(String str, String indent, boolean wrap) {
+        if (str.isEmpty()) {
+            printWord(str, 0, 0, 0, indent, wrap, true);
+            return;
+        }
+
+        int n = str.length();
+        int lineStart = 0;
+        while (lineStart < n) {
+            int lineEnd = str.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = n;
+            }
+            int textEnd = lineEnd;
+            if (textEnd < n && textEnd > lineStart && str.charAt(textEnd - 1) == '\r') {
+                textEnd--;  // CRLF
+            }
+
+            if (textEnd > lineStart) {
+                if (wrap) {
+                    printWords(str, lineStart, textEnd, indent);
+                } else {
+                    scan(str, lineStart, textEnd, false);
+                    printWord(str, lineStart, textEnd, scannedWidth, indent, false, true);
+                }
+            }
+            if (lineEnd < n) {
+                newline();
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    void newline() {
+        out.println();
+        column = 0;
+    }
+
+    private void printWords(String str, int start, int end, String indent) {
+        while (end > start && str.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        boolean firstWord = true;
+        for (int wordStart = start; wordStart < end; ) {
+            int wordEnd = scan(str, wordStart, end, true);
+            printWord(str, wordStart, wordEnd, scannedWidth, indent, true, firstWord);
+            firstWord = false;
+            wordStart = wordEnd + 1;
+        }
+    }
+
+    private void printWord(
+        String str,
+        int start,
+        int end,
+        int wordWidth,
+        String indent,
+        boolean wrap,
+        boolean firstWord
+    ) {
+        if (wrap && column + wordWidth >= width) {
+            newline();
+        }
+
+        if (column == 0) {
+            out.write(indent);
+            column += indent.length();
+        } else if (!firstWord) {
+            out.write(' ');
+            column++;
+        }
+
+        out.write(str, start, end - start);
+        column += wordWidth;
+    }
+
+    /**
+     * Scans forward from <code>start</code> to the end of the range or (if <code>stopAtSpace</code>)
+     * the next space, returning the index where it stopped. Sets {@link #scannedWidth} to the number
+     * of characters scanned, not counting ANSI escape codes of the form <code>ESC [ params letter</code>.
+     */
+    private int scan(String str, int start, int end, boolean stopAtSpace) {
+        int visible = 0, pos = start;
+        int escapeStart = -1;  // start of possible escape code in progress, or -1 if none
+        for (; pos < end; pos++) {
+            char c = str.charAt(pos);
+            if (stopAtSpace && c == ' ') {
+                break;
+            }
+            if (escapeStart >= 0) {
+                if (pos == escapeStart + 1
+                    ? c == '['
+                    : (c >= '0' && c <= '9') || c == ';'
+                ) {
+                    continue;
+                }
+                if (pos > escapeStart + 1 && c >= 'a' && c <= 'z') {
+                    escapeStart = -1;  // complete escape code, which takes no space
+                    continue;
+                }
+                visible += pos - escapeStart;  // not an escape code after all
+                escapeStart = -1;
+            }
+            if (c == ESC) {
+                escapeStart = pos;
+            } else {
+                visible++;
+            }
+        }
+        if (escapeStart >= 0) {
+            visible += pos - escapeStart;
+        }
+        scannedWidth = visible;
+        return pos;
+    }
+}
@@ -78,11 +78,14 @@ enum Generator {
         boolean allowLiteral,
         boolean allowMethodCall
     ) {
-        return chooseWithProb(ctx, allowLiteral ? 0.6 : 0,
-            () -> String.valueOf(ctx.getRandom().nextInt(10)),
-            () -> chooseWithProb(ctx, allowMethodCall ? 0.4 : 0,
-                () -> Nonsense.methodName(ctx) + "()",
-                () -> chooseWithProb(ctx, numeric ? 0 : 0.3, "!", "") + Nonsense.variableName(ctx)));
+        // Called for every leaf, so this avoids the closures chooseWithProb() would need
+        if (chance(ctx, allowLiteral ? 0.6 : 0)) {
+            return String.valueOf(ctx.getRandom().nextInt(10));
+        }
+        if (chance(ctx, allowMethodCall ? 0.4 : 0)) {
+            return Nonsense.methodName(ctx) + "()";
+        }
+        return chooseWithProb(ctx, numeric ? 0 : 0.3, "!", "") + Nonsense.variableName(ctx);
     }
 
     public static void main(String[] args) throws Exception {
@@ -0,0 +1,237 @@
+package edu.macalester.conceptual.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+/**
+ * Admission control for puzzle generation. Limits how many generations run at once, holds a
+ * bounded queue of waiting requests, and rejects new requests immediately once that queue is full.
+ * <p>
+ * Waiting requests are admitted in priority order (see {@link Priority}), then first come first
+ * served. Each puzzle type also has its own concurrency limit derived from its measured cost, so
+ * that a burst of expensive puzzles (e.g. large ASTs) cannot occupy every worker and starve cheap
+ * ones. A type that costs <i>k</i> times as much as the cheapest type may use roughly 1/<i>k</i> of
+ * the workers, but always at least one. Waiting requests of other types can pass a request whose
+ * type is at its limit.
+ */
+class GenerationScheduler {
+    /**
+     * Admission priority. Earlier constants go first.
+     */
+    enum Priority {
+        /**
+         * Solutions: somebody is waiting on the answer to a puzzle they already worked on.
+         */
+        SOLVE,
+
+        /**
+         * New puzzles.
+         */
+        GEN
+    }
+
+    private static final double COST_SMOOTHING = 0.2;
+
+    private final int maxRunning;
+    private final int maxQueued;
+
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+    private final Map<Byte, TypeStats> typeStats = new HashMap<>();
+    private int running;
+    private long nextSequence;
+
+    // Metrics (guarded by this)
+    private long admittedCount, rejectedCount;
+    private long totalWaitNanos, maxWaitNanos;
+
+    GenerationScheduler(int maxRunning, int maxQueued) {
+        this.maxRunning = maxRunning;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Waits for a turn to run the given generation, then runs it on the calling thread.
+     *
+     * @throws SaturatedException if the queue is full; the request was not run
+     */
+    <Result> Result run(byte puzzleType, Priority priority, Callable<Result> generation)
+        throws Exception {
+        admit(puzzleType, priority);
+        long start = System.nanoTime();
+        try {
+            return generation.call();
+        } finally {
+            finish(puzzleType, System.nanoTime() - start);
+        }
+    }
+
+    private synchronized void admit(byte puzzleType, Priority priority)
+        throws SaturatedException, InterruptedException {
+        if (queue.size() >= maxQueued) {
+            rejectedCount++;
+            throw new SaturatedException(estimatedWaitSeconds());
+        }
+
+        var ticket = new Ticket(puzzleType, priority, nextSequence++, System.nanoTime());
+        queue.add(ticket);
+        dispatch();
+        try {
+            while (!ticket.admitted) {
+                wait();
+            }
+        } catch(InterruptedException e) {
+            if (ticket.admitted) {
+                finish(puzzleType, 0);  // give up the slot we were just handed
+            } else {
+                queue.remove(ticket);
+            }
+            throw e;
+        }
+
+        long waited = System.nanoTime() - ticket.enqueuedAt;
+        admittedCount++;
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+    }
+
+    private synchronized void finish(byte puzzleType, long elapsedNanos) {
+        running--;
+        var stats = stats(puzzleType);
+        stats.running--;
+        if (elapsedNanos > 0) {
+            stats.recordCost(elapsedNanos / 1e6);
+        }
+        dispatch();
+    }
+
+    /**
+     * Admits as many waiting tickets as current limits allow, in priority order, skipping over any
+     * whose type is already at its limit.
+     */
+    private void dispatch() {
+        if (running >= maxRunning || queue.isEmpty()) {
+            return;
+        }
+
+        var blocked = new ArrayList<Ticket>();
+        while (running < maxRunning && !queue.isEmpty()) {
+            var ticket = queue.poll();
+            var stats = stats(ticket.puzzleType);
+            if (stats.running >= concurrencyLimit(stats)) {
+                blocked.add(ticket);
+                continue;
+            }
+            stats.running++;
+            running++;
+            ticket.admitted = true;
+        }
+        queue.addAll(blocked);
+        notifyAll();
+    }
+
+    private int concurrencyLimit(TypeStats stats) {
+        if (stats.averageCostMillis == 0) {
+            return maxRunning;  // no measurements yet
+        }
+        double cheapest = typeStats.values().stream()
+            .mapToDouble(s -> s.averageCostMillis)
+            .filter(cost -> cost > 0)
+            .min()
+            .orElse(stats.averageCostMillis);
+        int limit = (int) Math.ceil(maxRunning * cheapest / stats.averageCostMillis);
+        return Math.max(1, Math.min(maxRunning, limit));
+    }
+
+    private TypeStats stats(byte puzzleType) {
+        return typeStats.computeIfAbsent(puzzleType, k -> new TypeStats());
+    }
+
+    private int estimatedWaitSeconds() {
+        double averageCost = typeStats.values().stream()
+            .mapToDouble(s -> s.averageCostMillis)
+            .average()
+            .orElse(0);
+        double queuedWork = (queue.size() + running) * averageCost / maxRunning;
+        return Math.max(1, (int) Math.ceil(queuedWork / 1000));
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Metrics
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    /**
+     * Appends scheduler metrics to the given plain text metrics report, one per line. Puzzle types
+     * are labeled using the given names.
+     */
+    synchronized void appendMetrics(StringBuilder out, Map<Byte, String> puzzleNames) {
+        out.append("generation_running ").append(running).append('\n');
+        out.append("generation_queue_depth ").append(queue.size()).append('\n');
+        out.append("generation_admitted ").append(admittedCount).append('\n');
+        out.append("generation_rejected ").append(rejectedCount).append('\n');
+        out.append("generation_queue_wait_ms_total ").append(totalWaitNanos / 1_000_000).append('\n');
+        out.append("generation_queue_wait_ms_max ").append(maxWaitNanos / 1_000_000).append('\n');
+        for (var entry : typeStats.entrySet()) {
+            var label = "{puzzle=\"" + puzzleNames.getOrDefault(entry.getKey(), "?") + "\"}";
+            var stats = entry.getValue();
+            out.append("generation_cost_ms").append(label).append(' ')
+                .append(Math.round(stats.averageCostMillis)).append('\n');
+            out.append("generation_concurrency_limit").append(label).append(' ')
+                .append(concurrencyLimit(stats)).append('\n');
+        }
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Internals
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    private static class Ticket implements Comparable<Ticket> {
+        private final byte puzzleType;
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedAt;
+        private boolean admitted;
+
+        Ticket(byte puzzleType, Priority priority, long sequence, long enqueuedAt) {
+            this.puzzleType = puzzleType;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static class TypeStats {
+        private int running;
+        private double averageCostMillis;  // exponentially weighted; 0 until first measurement
+
+        void recordCost(double millis) {
+            averageCostMillis = (averageCostMillis == 0)
+                ? millis
+                : COST_SMOOTHING * millis + (1 - COST_SMOOTHING) * averageCostMillis;
+        }
+    }
+
+    /**
+     * Thrown when the scheduler is too busy to accept more work.
+     */
+    static class SaturatedException extends Exception {
+        private final int retryAfterSeconds;
+
+        SaturatedException(int retryAfterSeconds) {
+            super("Server is busy; try again in " + retryAfterSeconds + " seconds");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        int retryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
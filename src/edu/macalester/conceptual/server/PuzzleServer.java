@@ -0,0 +1,282 @@
+package edu.macalester.conceptual.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import edu.macalester.conceptual.GeneratorVersion;
+import edu.macalester.conceptual.Puzzle;
+import edu.macalester.conceptual.PuzzleDescriptor;
+import edu.macalester.conceptual.PuzzleRegistry;
+import edu.macalester.conceptual.context.HtmlPuzzlePrinter;
+import edu.macalester.conceptual.context.InvalidPuzzleCodeException;
+import edu.macalester.conceptual.context.PuzzleContext;
+import edu.macalester.conceptual.util.SingleFlight;
+
+/**
+ * Serves puzzles and solutions as HTML over HTTP, so that a whole class can look at the same
+ * puzzle without everyone having to run the generator locally. Started by the CLI’s
+ * <code>serve</code> command.
+ * <p>
+ * Routes:
+ * <ul>
+ *   <li><code>/gen/&lt;code&gt;</code>: the puzzle for the given code, without solutions</li>
+ *   <li><code>/solve/&lt;code&gt;</code>: the solution for the given code</li>
+ *   <li><code>/metrics</code>: plain text counters</li>
+ * </ul>
+ * Both puzzle routes accept a <code>parts=i,j,...</code> query parameter, like the CLI’s
+ * <code>--parts</code> option.
+ * <p>
+ * Identical requests that arrive while the same page is already being generated wait for that
+ * generation to finish and share its output. Successful responses carry a strong
+ * <code>ETag</code> and are cacheable indefinitely, since a page depends only on the request and the
+ * generator version; errors are never cacheable.
+ * Generation itself goes through a {@link GenerationScheduler}, which answers with 503 when the
+ * server is saturated.
+ */
+public class PuzzleServer {
+    private static final Pattern PUZZLE_ROUTE = Pattern.compile("/(gen|solve)/([^/]+)/?");
+    private static final int QUEUED_REQUESTS_PER_THREAD = 16;
+    private static final Map<Byte, String> PUZZLE_NAMES = PuzzleRegistry.all().stream()
+        .collect(Collectors.toMap(PuzzleDescriptor::id, PuzzleDescriptor::name));
+
+    private final HttpServer httpServer;
+    private final ExecutorService requestThreads;
+    private final GenerationScheduler scheduler;
+    private final SingleFlight<RenderRequest, byte[]> renders = new SingleFlight<>();
+    private final LongAdder notModified = new LongAdder();
+    private final GeneratorVersion version;
+
+    /**
+     * Creates a server that generates at most <code>threads</code> puzzles at once. Request threads
+     * are not limited separately; the generation queue bounds them.
+     */
+    public PuzzleServer(int port, int threads) throws IOException {
+        this(port, threads, GeneratorVersion.current());
+    }
+
+    /**
+     * Creates a server that tags its responses as coming from the given generator version.
+     */
+    PuzzleServer(int port, int threads, GeneratorVersion version) throws IOException {
+        this.version = version;
+        scheduler = new GenerationScheduler(threads, threads * QUEUED_REQUESTS_PER_THREAD);
+        requestThreads = Executors.newCachedThreadPool();
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/", this::handle);
+        httpServer.setExecutor(requestThreads);
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+        requestThreads.shutdown();
+    }
+
+    public int port() {
+        return httpServer.getAddress().getPort();
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Routing
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch(InvalidPuzzleCodeException e) {
+                respondWithError(exchange, 400, e.getMessage());
+            } catch(RequestException e) {
+                respondWithError(exchange, e.status, e.getMessage());
+            } catch(GenerationScheduler.SaturatedException e) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(e.retryAfterSeconds()));
+                respondWithError(exchange, 503, e.getMessage());
+            } catch(Exception e) {
+                e.printStackTrace();
+                respondWithError(exchange, 500, "Unable to generate puzzle");
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            respondWithError(exchange, 405, "Only GET is supported");
+            return;
+        }
+
+        var path = exchange.getRequestURI().getPath();
+        if (path.equals("/metrics")) {
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            respond(exchange, 200, "text/plain", metrics());
+            return;
+        }
+
+        var route = PUZZLE_ROUTE.matcher(path);
+        if (!route.matches()) {
+            respondWithError(exchange, 404, "No such page: " + path);
+            return;
+        }
+
+        var request = RenderRequest.of(
+            route.group(2),
+            route.group(1).equals("solve"),
+            parsePartsToShow(exchange.getRequestURI().getRawQuery()));
+
+        // Output never changes for a given request and generator build, so clients can cache it
+        // indefinitely. A dirty build has no stable version to tag, so we don’t let it be cached.
+        var etag = version.dirty() ? null : request.etag(version);
+        if (etag != null && matchesETag(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            notModified.increment();
+            setCacheHeaders(exchange, etag);
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        var priority = request.solution()
+            ? GenerationScheduler.Priority.SOLVE
+            : GenerationScheduler.Priority.GEN;
+        var html = renders.run(request, () ->
+            scheduler.run(request.puzzleID(), priority, () -> render(request)));
+
+        // Only now that rendering succeeded is the response the permanent one for this ETag
+        setCacheHeaders(exchange, etag);
+        respond(exchange, 200, "text/html; charset=utf-8", html);
+    }
+
+    /**
+     * Marks the response as cacheable forever under the given ETag, or not at all if it is null.
+     */
+    private static void setCacheHeaders(HttpExchange exchange, String etag) {
+        var headers = exchange.getResponseHeaders();
+        if (etag == null) {
+            headers.set("Cache-Control", "no-store");
+        } else {
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", "public, max-age=31536000, immutable");
+        }
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (var candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Integer> parsePartsToShow(String rawQuery) throws RequestException {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (var param : rawQuery.split("&")) {
+            var keyValue = param.split("=", 2);
+            if (keyValue.length == 2 && keyValue[0].equals("parts")) {
+                try {
+                    return Pattern.compile(",")
+                        .splitAsStream(URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8))
+                        .map(String::trim)
+                        .map(Integer::parseInt)
+                        .collect(Collectors.toSet());
+                } catch(NumberFormatException e) {
+                    throw new RequestException(400, "Malformed parts: " + keyValue[1]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sends a plain text error. Errors are often temporary (e.g. 503 when saturated), so they must
+     * never be cached.
+     */
+    private static void respondWithError(HttpExchange exchange, int status, String message)
+        throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.remove("ETag");
+        headers.set("Cache-Control", "no-store");
+        respond(exchange, status, "text/plain", message);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+        throws IOException {
+        respond(exchange, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+        throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Generating Puzzles
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    private static byte[] render(RenderRequest request) throws Exception {
+        var ctx = PuzzleContext.fromPuzzleCode(request.puzzleCode());
+        var puzzle = Puzzle.findByID(ctx.getPuzzleID());
+        if (puzzle == null) {
+            throw new RequestException(404, "This puzzle code refers to a puzzle type that no longer exists.");
+        }
+        if (ctx.getDifficulty() < puzzle.minDifficulty() || ctx.getDifficulty() > puzzle.maxDifficulty()) {
+            throw new RequestException(400, "Illegal difficulty level: " + ctx.getDifficulty());
+        }
+
+        var html = new StringWriter();
+        var printer = new HtmlPuzzlePrinter(new PrintWriter(html));
+        if (request.solution()) {
+            ctx.enableSolution();
+            ctx.setPuzzleTitle(puzzle.description() + ": Solution");
+        } else {
+            printer.enableCopyPasteObfuscation();
+            ctx.setPuzzleTitle(puzzle.description());
+        }
+        ctx.setOutput(printer);
+        ctx.setPartsToShow(request.partsToShow());
+        ctx.emitPuzzle(() -> puzzle.generate(ctx));
+
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String metrics() {
+        var out = new StringBuilder();
+        out.append("renders_executed ").append(renders.executionCount()).append('\n');
+        out.append("renders_coalesced ").append(renders.coalescedCount()).append('\n');
+        out.append("renders_in_flight ").append(renders.inFlightCount()).append('\n');
+        out.append("not_modified ").append(notModified.sum()).append('\n');
+        scheduler.appendMetrics(out, PUZZLE_NAMES);
+        return out.toString();
+    }
+
+    private static class RequestException extends Exception {
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.macalester.conceptual.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.google.common.hash.Hashing;
+
+import edu.macalester.conceptual.GeneratorVersion;
+import edu.macalester.conceptual.context.InvalidPuzzleCodeException;
+import edu.macalester.conceptual.context.PuzzleContext;
+
+/**
+ * Everything that determines the HTML for one puzzle page. Two equal requests always produce
+ * identical output, which is what allows the server to coalesce them.
+ *
+ * @param puzzleCode    The puzzle code in canonical form (see {@link #of})
+ * @param puzzleID      The puzzle type, as encoded in the puzzle code
+ * @param solution      Whether to render the solution (<code>solve</code>) or just the puzzle
+ *                      (<code>gen</code>)
+ * @param partsToShow   The parts to show, or null for all parts
+ */
+record RenderRequest(
+    String puzzleCode,
+    byte puzzleID,
+    boolean solution,
+    SortedSet<Integer> partsToShow
+) {
+    /**
+     * Creates a request with the puzzle code normalized, so that requests that differ only in
+     * capitalization or hyphenation of the code are equal.
+     */
+    static RenderRequest of(String puzzleCode, boolean solution, Set<Integer> partsToShow)
+        throws InvalidPuzzleCodeException {
+        var ctx = PuzzleContext.fromPuzzleCode(puzzleCode);
+        return new RenderRequest(
+            ctx.getPuzzleCode(),
+            ctx.getPuzzleID(),
+            solution,
+            partsToShow == null
+                ? null
+                : Collections.unmodifiableSortedSet(new TreeSet<>(partsToShow)));
+    }
+
+    /**
+     * A strong HTTP entity tag for the output of this request. Because output is fully determined
+     * by the request and the generator version, the tag is a hash of exactly those two things.
+     */
+    String etag(GeneratorVersion version) {
+        var canonicalForm = String.join("\n",
+            puzzleCode,
+            solution ? "solve" : "gen",
+            partsToShow == null ? "*" : partsToShow.toString(),
+            version.commitID());
+        var hash = Hashing.sha256().hashString(canonicalForm, StandardCharsets.UTF_8);
+        return "\"" + hash.toString().substring(0, 32) + "\"";
+    }
+}
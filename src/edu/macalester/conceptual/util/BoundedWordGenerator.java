@@ -0,0 +1,230 @@
+package edu.macalester.conceptual.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiPredicate;
+
+import edu.macalester.conceptual.context.PuzzleContext;
+
+/**
+ * Generates nonsense words of a requested length directly, instead of generating words of any
+ * length and throwing away the ones that don’t fit. Used by {@link Nonsense} for puzzles with
+ * {@link edu.macalester.conceptual.context.GeneratorFeature#BOUNDED_WORDS}.
+ * <p>
+ * Words are 1–2 syllables, each an onset, nucleus, and coda, as with the legacy generator. The
+ * syllable part tables are split into buckets by string length, and the generator precomputes how
+ * likely each total length is, so it can sample the length first and then sample parts that add
+ * up to it. For lengths within the requested range, the result has the same distribution as the
+ * legacy generator’s output restricted to that range.
+ * <p>
+ * Rejection of prohibited and already-used words is capped: after too many rejections in a row,
+ * the generator allows words one character longer, and once words are as long as two syllables can
+ * make them, a third syllable. That way a small space of short words running out can’t make
+ * generation loop forever, and words have three syllables only when it was necessary.
+ */
+final class BoundedWordGenerator {
+    private static final int
+        PARTS_PER_SYLLABLE = 3,
+        USUAL_MAX_SYLLABLES = 2,
+        MAX_SYLLABLES = 3,
+        ATTEMPTS_BEFORE_RELAXING = 64;
+
+    private final LengthBuckets[] parts;  // onset, nucleus, coda
+
+    // ways[k][j][r] = probability that, in a word of k syllables, the parts from index j onward
+    // have a total length of r
+    private final double[][][] ways;
+
+    private final Runnable onRelaxed;  // for instrumentation
+
+    BoundedWordGenerator(
+        WeightedChoices<String> onsets,
+        WeightedChoices<String> nuclei,
+        WeightedChoices<String> codas,
+        Runnable onRelaxed
+    ) {
+        parts = new LengthBuckets[] {
+            new LengthBuckets(onsets), new LengthBuckets(nuclei), new LengthBuckets(codas)
+        };
+        this.onRelaxed = onRelaxed;
+
+        ways = new double[MAX_SYLLABLES + 1][][];
+        for (int k = 1; k <= MAX_SYLLABLES; k++) {
+            int partCount = k * PARTS_PER_SYLLABLE;
+            ways[k] = new double[partCount + 1][];
+            ways[k][partCount] = new double[] { 1 };
+            for (int j = partCount - 1; j >= 0; j--) {
+                var part = parts[j % PARTS_PER_SYLLABLE].probability;
+                var rest = ways[k][j + 1];
+                var total = new double[part.length + rest.length - 1];
+                for (int len = 0; len < part.length; len++) {
+                    for (int r = 0; r < rest.length; r++) {
+                        total[len + r] += part[len] * rest[r];
+                    }
+                }
+                ways[k][j] = total;
+            }
+        }
+    }
+
+    /**
+     * Returns a word between <code>minLength</code> and <code>maxLength</code> (inclusive) that is
+     * not <code>rejected</code>, relaxing the maximum as necessary.
+     */
+    String word(
+        PuzzleContext ctx,
+        int minLength,
+        int maxLength,
+        BiPredicate<PuzzleContext, String> rejected
+    ) {
+        var rand = ctx.getRandom();
+        maxLength = Math.min(maxLength, maxLength(MAX_SYLLABLES));  // longer is impossible anyway
+        int maxSyllables = USUAL_MAX_SYLLABLES;
+        int attempts = 0;
+        while (true) {
+            if (attempts >= ATTEMPTS_BEFORE_RELAXING || mass(maxSyllables, minLength, maxLength) == 0) {
+                // Allow longer words, and only once no more length helps, a third syllable
+                if (maxLength < maxLength(maxSyllables)) {
+                    maxLength++;
+                } else if (maxSyllables < MAX_SYLLABLES) {
+                    maxSyllables++;
+                } else {
+                    throw new IllegalStateException(
+                        "Unable to generate an unused word of " + minLength + "+ characters");
+                }
+                attempts = 0;
+                onRelaxed.run();
+                continue;
+            }
+
+            var word = candidate(ctx, rand, maxSyllables, minLength, maxLength);
+            if (!rejected.test(ctx, word)) {
+                return word;
+            }
+            attempts++;
+        }
+    }
+
+    private String candidate(PuzzleContext ctx, Random rand, int maxSyllables, int minLength, int maxLength) {
+        // Syllable count: equally likely a priori, then weighted by how likely each count is to
+        // produce a word in the range
+        double r = rand.nextDouble() * mass(maxSyllables, minLength, maxLength);
+        int syllables = 0;
+        for (int k = 1; k <= maxSyllables; k++) {
+            double weight = mass(k, k, minLength, maxLength);
+            if (weight > 0) {
+                syllables = k;
+                r -= weight;
+                if (r < 0) {
+                    break;
+                }
+            }
+        }
+
+        // Total length
+        var lengths = ways[syllables][0];
+        double lengthMass = mass(syllables, syllables, minLength, maxLength);
+        r = rand.nextDouble() * lengthMass;
+        int remaining = 0;
+        for (int len = minLength; len <= maxLength && len < lengths.length; len++) {
+            if (lengths[len] > 0) {
+                remaining = len;
+                r -= lengths[len];
+                if (r < 0) {
+                    break;
+                }
+            }
+        }
+
+        // Each part’s length, given the total remaining for it and the parts after it
+        var word = new StringBuilder(remaining);
+        int partCount = syllables * PARTS_PER_SYLLABLE;
+        for (int j = 0; j < partCount; j++) {
+            var part = parts[j % PARTS_PER_SYLLABLE];
+            var rest = ways[syllables][j + 1];
+
+            double partMass = 0;
+            for (int len = 0; len < part.probability.length && len <= remaining; len++) {
+                partMass += partWeight(part, rest, len, remaining);
+            }
+            r = rand.nextDouble() * partMass;
+            int partLength = 0;
+            for (int len = 0; len < part.probability.length && len <= remaining; len++) {
+                double weight = partWeight(part, rest, len, remaining);
+                if (weight > 0) {
+                    partLength = len;
+                    r -= weight;
+                    if (r < 0) {
+                        break;
+                    }
+                }
+            }
+
+            word.append(part.byLength[partLength].choose(ctx));
+            remaining -= partLength;
+        }
+        return word.toString();
+    }
+
+    private static double partWeight(LengthBuckets part, double[] rest, int len, int remaining) {
+        return remaining - len < rest.length
+            ? part.probability[len] * rest[remaining - len]
+            : 0;
+    }
+
+    /**
+     * Relative probability of getting a word in the length range with up to the given number of
+     * syllables.
+     */
+    private double mass(int maxSyllables, int minLength, int maxLength) {
+        return mass(1, maxSyllables, minLength, maxLength);
+    }
+
+    private double mass(int minSyllables, int maxSyllables, int minLength, int maxLength) {
+        double result = 0;
+        for (int k = minSyllables; k <= maxSyllables; k++) {
+            var lengths = ways[k][0];
+            for (int len = minLength; len <= maxLength && len < lengths.length; len++) {
+                result += lengths[len];
+            }
+        }
+        return result;
+    }
+
+    private int maxLength(int syllables) {
+        return ways[syllables][0].length - 1;
+    }
+
+    /**
+     * One syllable part table, split up by choice length.
+     */
+    private static final class LengthBuckets {
+        private final WeightedChoices<String>[] byLength;
+        private final double[] probability;
+
+        @SuppressWarnings("unchecked")
+        LengthBuckets(WeightedChoices<String> choices) {
+            int maxLength = 0;
+            for (int i = 0; i < choices.size(); i++) {
+                maxLength = Math.max(maxLength, choices.choice(i).length());
+            }
+
+            byLength = new WeightedChoices[maxLength + 1];
+            var weight = new long[maxLength + 1];
+            for (int i = 0; i < choices.size(); i++) {
+                int len = choices.choice(i).length();
+                if (byLength[len] == null) {
+                    byLength[len] = new WeightedChoices<>();
+                }
+                byLength[len].add(choices.choice(i), choices.weight(i));
+                weight[len] += choices.weight(i);
+            }
+
+            double total = Arrays.stream(weight).sum();
+            probability = new double[maxLength + 1];
+            for (int len = 0; len <= maxLength; len++) {
+                probability[len] = weight[len] / total;
+            }
+        }
+    }
+}
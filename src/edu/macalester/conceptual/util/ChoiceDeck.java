@@ -10,22 +10,32 @@ import edu.macalester.conceptual.context.PuzzleContext;
  * A random selection utility that behaves like a repeatedly shuffled deck of cards: a client can
  * “draw” from the collection, and (1) choices appear in a random order, but (2) no choice is
  * selected more than one time more than any other choice.
+ *
+ * @see IntChoiceDeck
  */
 public class ChoiceDeck<ChoiceType> {
     private final PuzzleContext ctx;
     private final List<ChoiceType> cards, deck;
+    private int nextCard;  // index of the top of the deck; deck is empty when this reaches its size
 
     public ChoiceDeck(PuzzleContext ctx, List<ChoiceType> cards) {
         this.ctx = ctx;
         this.cards = List.copyOf(cards);
-        this.deck = new ArrayList<>();
+        this.deck = new ArrayList<>(this.cards);
+        this.nextCard = deck.size();
     }
 
     public ChoiceType draw() {
-        if (deck.isEmpty()) {
-            deck.addAll(cards);
+        if (nextCard >= deck.size()) {
+            // Always shuffle starting from the original order, so that the order of cards depends
+            // only on the random numbers. (Copying element by element avoids addAll()’s temporary
+            // array.)
+            for (int i = 0; i < cards.size(); i++) {
+                deck.set(i, cards.get(i));
+            }
             Collections.shuffle(deck, ctx.getRandom());
+            nextCard = 0;
         }
-        return deck.remove(0);
+        return deck.get(nextCard++);
     }
 }
@@ -0,0 +1,140 @@
+package edu.macalester.conceptual.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * A compact binary form of the text files {@link WeightedChoices#fromResource} reads, so that
+ * loading a table at startup is one read plus a simple decoding loop instead of line-by-line regex
+ * parsing. The build compiles each text table into a <code>.bin</code> resource next to it (see
+ * the <code>compileChoiceTables</code> task in build.gradle); the text files remain the source of
+ * truth, and the loader falls back to them if the compiled form is missing. The build recompiles
+ * whenever the text changes; each compiled table also records a checksum of the text it came from,
+ * which the tests check against <code>res/</code> so that a stale table can’t go unnoticed.
+ * <p>
+ * Format: the magic number, the CRC-32C of the source text file’s bytes, the choice count, then
+ * for each choice its UTF-8 length (unsigned short), UTF-8 bytes, and weight (long). All numbers
+ * are big-endian.
+ */
+enum CompiledChoiceTable {
+    ; // static utility class; no cases
+
+    static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x57434832;  // "WCH2"
+
+    /**
+     * Reads the compiled form of the given text resource, or returns null if there is none.
+     */
+    static WeightedChoices<String> fromResource(String resPath) {
+        try (var input = CompiledChoiceTable.class.getClassLoader().getResourceAsStream(resPath + SUFFIX)) {
+            if (input == null) {
+                return null;
+            }
+            return read(input);
+        } catch(IOException | RuntimeException e) {
+            throw new RuntimeException("Unable to load choices from " + resPath + SUFFIX, e);
+        }
+    }
+
+    static WeightedChoices<String> read(InputStream input) throws IOException {
+        var bytes = ByteBuffer.wrap(input.readAllBytes());
+        try {
+            readHeader(bytes);
+            int size = bytes.getInt();
+            if (size < 0 || size > bytes.remaining()) {
+                throw new IOException("Invalid choice count: " + size);
+            }
+            var values = new Object[size];
+            var weights = new long[size];
+            for (int i = 0; i < size; i++) {
+                int length = Short.toUnsignedInt(bytes.getShort());
+                values[i] = new String(bytes.array(), bytes.position(), length, StandardCharsets.UTF_8).intern();
+                bytes.position(bytes.position() + length);
+                weights[i] = bytes.getLong();
+                if (weights[i] < 0) {
+                    throw new IOException("Negative weight for " + values[i]);
+                }
+            }
+            return new WeightedChoices<>(values, weights, size);
+        } catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated compiled choice table", e);
+        }
+    }
+
+    /**
+     * Writes the given choices, which were parsed from <code>source</code>, in compiled form.
+     */
+    static void write(WeightedChoices<String> choices, byte[] source, OutputStream output)
+        throws IOException {
+        var buffer = new ByteArrayOutputStream();
+        var data = new DataOutputStream(buffer);
+        data.writeInt(MAGIC);
+        data.writeInt(checksum(source));
+        data.writeInt(choices.size());
+        for (int i = 0; i < choices.size(); i++) {
+            var utf8 = choices.choice(i).getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > 0xFFFF) {
+                throw new IOException("Choice too long: " + choices.choice(i).substring(0, 40) + "…");
+            }
+            data.writeShort(utf8.length);
+            data.write(utf8);
+            data.writeLong(choices.weight(i));
+        }
+        data.flush();
+        buffer.writeTo(output);
+    }
+
+    /**
+     * Returns the checksum of the source text the given compiled table was compiled from.
+     */
+    static int sourceChecksum(InputStream input) throws IOException {
+        return readHeader(ByteBuffer.wrap(input.readNBytes(2 * Integer.BYTES)));
+    }
+
+    private static int readHeader(ByteBuffer bytes) throws IOException {
+        try {
+            if (bytes.getInt() != MAGIC) {
+                throw new IOException("Not a compiled choice table");
+            }
+            return bytes.getInt();
+        } catch(BufferUnderflowException e) {
+            throw new IOException("Truncated compiled choice table", e);
+        }
+    }
+
+    static int checksum(byte[] source) {
+        var crc = new CRC32C();
+        crc.update(source);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Build step: compiles text tables into binary ones.
+     * <p>
+     * Usage: <code>CompiledChoiceTable &lt;sourceDir&gt; &lt;outputDir&gt; &lt;table&gt;...</code>,
+     * where each table is a path relative to both directories.
+     */
+    public static void main(String[] args) throws IOException {
+        var sourceDir = Path.of(args[0]);
+        var outputDir = Path.of(args[1]);
+        for (int i = 2; i < args.length; i++) {
+            var source = Files.readAllBytes(sourceDir.resolve(args[i]));
+            var choices = WeightedChoices.parseText(source);
+
+            var outputFile = outputDir.resolve(args[i] + SUFFIX);
+            Files.createDirectories(outputFile.getParent());
+            try (var output = Files.newOutputStream(outputFile)) {
+                write(choices, source, output);
+            }
+        }
+    }
+}
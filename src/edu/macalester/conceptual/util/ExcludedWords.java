@@ -12,24 +12,27 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
  * Tracks prohibited and previous used nonsense words. Backed by a bloom filter, populated from a
  * file that is pre-seeded with all Java reserved words plus not-too-long words from the dictionary.
+ * The file is in Guava’s format, but is read through a shared read-only {@link MappedBloomFilter}
+ * rather than deserialized.
  */
 @SuppressWarnings("UnstableApiUsage")
 class ExcludedWords {
     private static final String BLOOM_FILE_NAME = "nonsense-prohibited.bloom";
 
-    private final BloomFilter<String> excludedWords;
+    private final MappedBloomFilter excludedWords;
+    private final Set<String> addedWords = ConcurrentHashMap.newKeySet();
 
     ExcludedWords() {
-        BloomFilter<String> bloom = null;
-        try (var bloomInput = Nonsense.class.getClassLoader().getResourceAsStream(BLOOM_FILE_NAME)) {
-            if (bloomInput != null) {
-                bloom = BloomFilter.readFrom(bloomInput, Funnels.unencodedCharsFunnel());
-            }
+        MappedBloomFilter bloom = null;
+        try {
+            bloom = MappedBloomFilter.fromResource(BLOOM_FILE_NAME);
         } catch(IOException e) {
             e.printStackTrace();
         }
@@ -37,7 +40,6 @@ class ExcludedWords {
         if (bloom == null) {
             System.out.println("WARNING: Unable to read res/" + BLOOM_FILE_NAME
                 + "; no nonsense words will be prohibited");
-            bloom = BloomFilter.create(Funnels.unencodedCharsFunnel(), 100);
         }
         excludedWords = bloom;
     }
@@ -69,10 +71,12 @@ class ExcludedWords {
     }
 
     public boolean contains(String word) {
-        return word.length() > 1 && excludedWords.mightContain(word);
+        return word.length() > 1
+            && (excludedWords != null && excludedWords.mightContain(word)
+                || !addedWords.isEmpty() && addedWords.contains(word));
     }
 
     public void add(String word) {
-        excludedWords.put(word);
+        addedWords.add(word);
     }
 }
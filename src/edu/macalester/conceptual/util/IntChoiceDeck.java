@@ -0,0 +1,57 @@
+package edu.macalester.conceptual.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import edu.macalester.conceptual.context.PuzzleContext;
+
+/**
+ * A {@link ChoiceDeck} of ints, which does not box its cards. Draws the same sequence as a
+ * <code>ChoiceDeck&lt;Integer&gt;</code> of the same cards with the same random numbers.
+ */
+public class IntChoiceDeck {
+    private final PuzzleContext ctx;
+    private final int[] cards, deck;
+    private int nextCard;
+
+    public IntChoiceDeck(PuzzleContext ctx, int... cards) {
+        this.ctx = ctx;
+        this.cards = cards.clone();
+        this.deck = new int[cards.length];
+        this.nextCard = deck.length;
+    }
+
+    /**
+     * A deck containing each of the numbers from 0 (inclusive) to <code>count</code> (exclusive).
+     */
+    public static IntChoiceDeck range(PuzzleContext ctx, int count) {
+        var cards = new int[count];
+        Arrays.setAll(cards, i -> i);
+        return new IntChoiceDeck(ctx, cards);
+    }
+
+    public int draw() {
+        if (deck.length == 0) {
+            throw new IndexOutOfBoundsException("Cannot draw from an empty deck");
+        }
+        if (nextCard >= deck.length) {
+            System.arraycopy(cards, 0, deck, 0, cards.length);
+            shuffle(deck, ctx.getRandom());
+            nextCard = 0;
+        }
+        return deck[nextCard++];
+    }
+
+    /**
+     * Shuffles exactly as <code>Collections.shuffle()</code> does, so that it consumes the same
+     * random numbers and produces the same order.
+     */
+    private static void shuffle(int[] array, Random rand) {
+        for (int i = array.length; i > 1; i--) {
+            int j = rand.nextInt(i);
+            int temp = array[i - 1];
+            array[i - 1] = array[j];
+            array[j] = temp;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package edu.macalester.conceptual.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds near-duplicate {@link MinHash} signatures among many, without comparing every pair.
+ * <p>
+ * Locality-sensitive hashing: each signature is split into bands of consecutive positions, and
+ * signatures that agree on every position of at least one band land in the same bucket for that
+ * band. Only signatures that share a bucket get compared in full. With <i>b</i> bands of <i>r</i>
+ * positions, two sets with Jaccard index <i>s</i> share a bucket with probability
+ * 1 − (1 − <i>s</i><sup><i>r</i></sup>)<sup><i>b</i></sup>, which rises steeply around
+ * (1/<i>b</i>)<sup>1/<i>r</i></sup>. Adding and querying take time proportional to the number of
+ * bands plus the number of candidates, so indexing <i>n</i> dissimilar signatures is close to
+ * linear in <i>n</i>.
+ */
+public class LshIndex {
+    private final int bands, rows;
+    private final List<Map<Long, List<Integer>>> buckets;  // per band: band hash → signature IDs
+    private final List<long[]> signatures = new ArrayList<>();
+
+    public LshIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * The signature length this index expects.
+     */
+    public int signatureLength() {
+        return bands * rows;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Returns the ID of a previously added signature whose estimated similarity to the given one
+     * is at least <code>threshold</code>, or -1 if there is none.
+     */
+    public int findSimilar(long[] signature, double threshold) {
+        checkLength(signature);
+        var checked = new HashSet<Integer>();
+        for (int band = 0; band < bands; band++) {
+            var candidates = buckets.get(band).get(bandHash(signature, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (int id : candidates) {
+                if (checked.add(id) && MinHash.similarity(signature, signatures.get(id)) >= threshold) {
+                    return id;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the signature to the index, returning its ID. IDs count up from zero.
+     */
+    public int add(long[] signature) {
+        checkLength(signature);
+        int id = signatures.size();
+        signatures.add(signature.clone());
+        for (int band = 0; band < bands; band++) {
+            buckets.get(band)
+                .computeIfAbsent(bandHash(signature, band), k -> new ArrayList<>(1))
+                .add(id);
+        }
+        return id;
+    }
+
+    private long bandHash(long[] signature, int band) {
+        long hash = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = MinHash.combine(hash, signature[i]);
+        }
+        return hash;
+    }
+
+    private void checkLength(long[] signature) {
+        if (signature.length != signatureLength()) {
+            throw new IllegalArgumentException(
+                "Expected signature of length " + signatureLength() + ", got " + signature.length);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package edu.macalester.conceptual.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of a bloom filter serialized by Guava’s <code>BloomFilter.writeTo()</code> with
+ * <code>Funnels.unencodedCharsFunnel()</code>. Instead of deserializing the filter onto the heap,
+ * this memory-maps the file when it can (so all threads, and all processes on the machine, share
+ * one copy of the bits in the OS page cache), and it hashes words directly from their chars,
+ * without allocating.
+ * <p>
+ * File format (all big-endian): strategy ordinal (byte; only <code>MURMUR128_MITZ_64</code> is
+ * supported), number of hash functions (unsigned byte), number of longs in the bit array (int),
+ * then the bit array as longs.
+ */
+final class MappedBloomFilter {
+    private static final int MURMUR128_MITZ_64 = 1;
+    private static final int HEADER_SIZE = 6;
+
+    private final ByteBuffer bits;
+    private final long bitSize;
+    private final int numHashFunctions;
+
+    /**
+     * Opens the given classpath resource, mapping it if it is a plain file. Returns null if there
+     * is no such resource.
+     */
+    static MappedBloomFilter fromResource(String name) throws IOException {
+        URL url = MappedBloomFilter.class.getClassLoader().getResource(name);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return fromFile(Path.of(url.toURI()));
+            } catch(URISyntaxException e) {
+                // fall through and read it as a stream instead
+            }
+        }
+        try (InputStream input = url.openStream()) {
+            return new MappedBloomFilter(ByteBuffer.wrap(input.readAllBytes()));
+        }
+    }
+
+    static MappedBloomFilter fromFile(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel closes
+            return new MappedBloomFilter(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    MappedBloomFilter(ByteBuffer data) throws IOException {
+        if (data.limit() < HEADER_SIZE) {
+            throw new IOException("Bloom filter file is truncated");
+        }
+        int strategy = data.get(0);
+        if (strategy != MURMUR128_MITZ_64) {
+            throw new IOException("Unsupported bloom filter strategy: " + strategy);
+        }
+        numHashFunctions = Byte.toUnsignedInt(data.get(1));
+        int numLongs = data.getInt(2);
+        if (numLongs <= 0 || data.limit() != HEADER_SIZE + numLongs * (long) Long.BYTES) {
+            throw new IOException("Bloom filter file has wrong size for " + numLongs + " longs");
+        }
+        bits = data.slice(HEADER_SIZE, numLongs * Long.BYTES).asReadOnlyBuffer();
+        bitSize = numLongs * (long) Long.SIZE;
+    }
+
+    /**
+     * Returns true if the word might be in the set, or false if it definitely is not. Gives the
+     * same answers as Guava’s <code>BloomFilter.mightContain()</code> for the same file.
+     */
+    boolean mightContain(CharSequence word) {
+        // Murmur3 x64 128-bit hash (seed 0) of the word’s chars as little-endian UTF-16, which is
+        // what Guava hashes for unencodedCharsFunnel
+        int length = word.length();
+        long h1 = 0, h2 = 0;
+        int pos = 0;
+        for (; pos + 8 <= length; pos += 8) {
+            long k1 = charsToLong(word, pos, 4);
+            long k2 = charsToLong(word, pos + 4, 4);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        int remaining = length - pos;
+        if (remaining > 0) {
+            h1 ^= mixK1(charsToLong(word, pos, Math.min(remaining, 4)));
+            if (remaining > 4) {
+                h2 ^= mixK2(charsToLong(word, pos + 4, remaining - 4));
+            }
+        }
+        long byteLength = length * 2L;
+        h1 ^= byteLength;
+        h2 ^= byteLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        // Guava’s MURMUR128_MITZ_64 strategy: double hashing from the two halves
+        long combinedHash = h1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = (combinedHash & Long.MAX_VALUE) % bitSize;
+            if ((bits.getLong((int) (index >>> 6) * Long.BYTES) & (1L << index)) == 0) {
+                return false;
+            }
+            combinedHash += h2;
+        }
+        return true;
+    }
+
+    private static long charsToLong(CharSequence s, int start, int count) {
+        long result = 0;
+        for (int i = 0; i < count; i++) {
+            result |= (long) s.charAt(start + i) << (16 * i);
+        }
+        return result;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= 0x87c37b91114253d5L;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= 0x4cf5ad432745937fL;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= 0x4cf5ad432745937fL;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= 0x87c37b91114253d5L;
+        return k2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
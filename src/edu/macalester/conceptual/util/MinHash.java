@@ -0,0 +1,82 @@
+package edu.macalester.conceptual.util;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures, which estimate how similar two sets are (the Jaccard index: size of the
+ * intersection over size of the union) from fixed-size summaries of each set. Sets are given as
+ * 64-bit hashes of their elements.
+ * <p>
+ * Each position in a signature is the minimum over the set of a different hash function; two sets
+ * agree at any given position with probability equal to their Jaccard index.
+ *
+ * @see LshIndex
+ */
+public enum MinHash {
+    ; // static utility class; no cases
+
+    /**
+     * Returns a signature of the given length for the set of the given element hashes. Duplicates
+     * in <code>elementHashes</code> do not matter. The signature of an empty set is all
+     * <code>Long.MAX_VALUE</code>.
+     */
+    public static long[] signature(long[] elementHashes, int length) {
+        var signature = new long[length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long element : elementHashes) {
+            for (int i = 0; i < length; i++) {
+                // Each position’s hash function is the mixer applied to the element offset by a
+                // position-specific constant
+                long h = mix(element + (i + 1) * 0x9e3779b97f4a7c15L);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard index of the sets the two signatures came from.
+     */
+    public static double similarity(long[] signature0, long[] signature1) {
+        if (signature0.length != signature1.length) {
+            throw new IllegalArgumentException("Signatures have different lengths");
+        }
+        int matches = 0;
+        for (int i = 0; i < signature0.length; i++) {
+            if (signature0[i] == signature1[i]) {
+                matches++;
+            }
+        }
+        return matches / (double) signature0.length;
+    }
+
+    /**
+     * A 64-bit hash of the given string, for use as an element hash.
+     */
+    public static long hash(CharSequence str) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            hash ^= str.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Combines two hashes into one, order-dependently, for hashing sequences.
+     */
+    public static long combine(long hash0, long hash1) {
+        return mix(hash0 * 31 + hash1);
+    }
+
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -1,6 +1,7 @@
 package edu.macalester.conceptual.util;
 
 import java.text.Normalizer;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
 import com.github.javaparser.ast.body.VariableDeclarator;
@@ -12,6 +13,7 @@ import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
 import com.google.common.collect.Lists;
 
+import edu.macalester.conceptual.context.GeneratorFeature;
 import edu.macalester.conceptual.context.PuzzleContext;
 
 import static com.github.javaparser.utils.Utils.capitalize;
@@ -22,12 +24,75 @@ import static edu.macalester.conceptual.util.Randomness.*;
  * that return both Strings and JavaParser AST nodes.
  */
 public class Nonsense {
-    private static final WeightedChoices<String>
-        ONSETS = WeightedChoices.fromResource("syllable-parts/onsets"),
-        NUCLEI = WeightedChoices.fromResource("syllable-parts/nuclei"),
-        CODAS = WeightedChoices.fromResource("syllable-parts/codas");
+    // These tables take a while to load, and many callers only want the text utilities below
+    // (articles, pluralization), so they live in holder classes that load on first use.
+
+    private static class Syllables {
+        private static final WeightedChoices<String>
+            ONSETS = WeightedChoices.fromResource("syllable-parts/onsets"),
+            NUCLEI = WeightedChoices.fromResource("syllable-parts/nuclei"),
+            CODAS = WeightedChoices.fromResource("syllable-parts/codas");
+    }
+
+    private static class Excluded {
+        private static final ExcludedWords WORDS = new ExcludedWords();
+    }
+
+    private static class Bounded {
+        private static final BoundedWordGenerator GENERATOR = new BoundedWordGenerator(
+            Syllables.ONSETS, Syllables.NUCLEI, Syllables.CODAS, Stats.LENGTH_RELAXATIONS::increment);
+    }
+
+    private enum Stats {
+        WORDS,
+        REJECTED_FOR_LENGTH,
+        REJECTED_AS_EXCLUDED,
+        REJECTED_AS_USED,
+        LENGTH_RELAXATIONS;
+
+        private final LongAdder count = new LongAdder();
+
+        void increment() {
+            count.increment();
+        }
+    }
 
-    private static final ExcludedWords excludedWords = new ExcludedWords();
+    /**
+     * Counts of word generation work since the last {@link #resetWordStats()}, across all threads.
+     * <code>words</code> counts every word generated, including ones the legacy generator then
+     * discarded for being the wrong length; the bounded generator never discards for length, but
+     * may relax the length limit instead.
+     */
+    public record WordStats(
+        long words,
+        long rejectedForLength,
+        long rejectedAsExcluded,
+        long rejectedAsUsed,
+        long lengthRelaxations
+    ) {
+        public long candidates() {
+            return words + rejectedAsExcluded + rejectedAsUsed;
+        }
+
+        public long accepted() {
+            return words - rejectedForLength;
+        }
+    }
+
+    public static WordStats wordStats() {
+        return new WordStats(
+            Stats.WORDS.count.sum(),
+            Stats.REJECTED_FOR_LENGTH.count.sum(),
+            Stats.REJECTED_AS_EXCLUDED.count.sum(),
+            Stats.REJECTED_AS_USED.count.sum(),
+            Stats.LENGTH_RELAXATIONS.count.sum());
+    }
+
+    public static void resetWordStats() {
+        for (var stat : Stats.values()) {
+            stat.count.reset();
+        }
+    }
 
     public static VariableDeclarator variable(PuzzleContext ctx) {
         return variable(ctx, type(ctx));
@@ -110,16 +175,29 @@ public class Nonsense {
         return new NameExpr(propertyName(ctx));
     }
 
+    /**
+     * Generates one or more nonsense words, each <code>minWordLen</code> to
+     * <code>maxWordLen</code> characters long, until there are at least <code>minTotalLen</code>
+     * characters in all.
+     * <p>
+     * With {@link GeneratorFeature#BOUNDED_WORDS}, a word may be longer than
+     * <code>maxWordLen</code> if the puzzle has used up (nearly) every word in the range; see
+     * {@link BoundedWordGenerator}. Without it, this loops until it finds a word in range.
+     */
     public static String words(
         PuzzleContext ctx,
         NameFormat format,
         int minWordLen,
         int maxWordLen, int minTotalLen
     ) {
+        boolean bounded = ctx.hasFeature(GeneratorFeature.BOUNDED_WORDS);
         StringBuilder result = new StringBuilder();
         while (result.length() < minTotalLen) {
-            String nextWord = word(ctx);
-            if (nextWord.length() < minWordLen || nextWord.length() > maxWordLen) {
+            String nextWord = bounded
+                ? boundedWord(ctx, minWordLen, maxWordLen)
+                : word(ctx);
+            if (!bounded && (nextWord.length() < minWordLen || nextWord.length() > maxWordLen)) {
+                Stats.REJECTED_FOR_LENGTH.increment();
                 continue;
             }
             result.append(
@@ -131,6 +209,10 @@ public class Nonsense {
     }
 
     public static String word(PuzzleContext ctx) {
+        if (ctx.hasFeature(GeneratorFeature.BOUNDED_WORDS)) {
+            return boundedWord(ctx, 1, Integer.MAX_VALUE);
+        }
+
         String result;
         do {
             StringBuilder builder = new StringBuilder();
@@ -138,13 +220,39 @@ public class Nonsense {
                 builder.append(syllable(ctx));
             }
             result = builder.toString();
-        } while(excludedWords.contains(result) || ctx.isIdentifierAlreadyUsed(result));
+        } while(isRejected(ctx, result));
         ctx.useIdentifier(result);  // never generate the same word twice
+        Stats.WORDS.increment();
         return result;
     }
 
+    /**
+     * Generates a word whose length is in the given range if possible, though it may be longer if
+     * the range is running out of unused words.
+     */
+    private static String boundedWord(PuzzleContext ctx, int minLen, int maxLen) {
+        var result = Bounded.GENERATOR.word(ctx, minLen, maxLen, Nonsense::isRejected);
+        ctx.useIdentifier(result);
+        Stats.WORDS.increment();
+        return result;
+    }
+
+    private static boolean isRejected(PuzzleContext ctx, String word) {
+        if (Excluded.WORDS.contains(word)) {
+            Stats.REJECTED_AS_EXCLUDED.increment();
+            return true;
+        }
+        if (ctx.isIdentifierAlreadyUsed(word)) {
+            Stats.REJECTED_AS_USED.increment();
+            return true;
+        }
+        return false;
+    }
+
     public static String syllable(PuzzleContext ctx) {
-        return ONSETS.choose(ctx) + NUCLEI.choose(ctx) + CODAS.choose(ctx);
+        return Syllables.ONSETS.choose(ctx)
+            + Syllables.NUCLEI.choose(ctx)
+            + Syllables.CODAS.choose(ctx);
     }
 
     public static String pluralize(String word) {
@@ -27,6 +27,95 @@ public enum Randomness {
         return choices[ctx.getRandom().nextInt(choices.length)];
     }
 
+    /**
+     * Same as {@link #chooseConst(PuzzleContext, Object[])} for two choices, without allocating a
+     * varargs array.
+     */
+    public static <Choice> Choice chooseConst(PuzzleContext ctx, Choice choice0, Choice choice1) {
+        return ctx.getRandom().nextInt(2) == 0 ? choice0 : choice1;
+    }
+
+    /**
+     * Same as {@link #chooseConst(PuzzleContext, Object[])} for three choices, without allocating
+     * a varargs array.
+     */
+    public static <Choice> Choice chooseConst(
+        PuzzleContext ctx,
+        Choice choice0,
+        Choice choice1,
+        Choice choice2
+    ) {
+        return switch(ctx.getRandom().nextInt(3)) {
+            case 0 -> choice0;
+            case 1 -> choice1;
+            default -> choice2;
+        };
+    }
+
+    /**
+     * Same as {@link #chooseConst(PuzzleContext, Object[])} for four choices, without allocating a
+     * varargs array.
+     */
+    public static <Choice> Choice chooseConst(
+        PuzzleContext ctx,
+        Choice choice0,
+        Choice choice1,
+        Choice choice2,
+        Choice choice3
+    ) {
+        return switch(ctx.getRandom().nextInt(4)) {
+            case 0 -> choice0;
+            case 1 -> choice1;
+            case 2 -> choice2;
+            default -> choice3;
+        };
+    }
+
+    /**
+     * Randomly selects one of the given ints, with equal probability, without boxing.
+     */
+    public static int chooseConst(PuzzleContext ctx, int choice0, int choice1) {
+        return ctx.getRandom().nextInt(2) == 0 ? choice0 : choice1;
+    }
+
+    /**
+     * Randomly selects one of the given ints, with equal probability, without boxing.
+     */
+    public static int chooseConst(PuzzleContext ctx, int choice0, int choice1, int choice2) {
+        return switch(ctx.getRandom().nextInt(3)) {
+            case 0 -> choice0;
+            case 1 -> choice1;
+            default -> choice2;
+        };
+    }
+
+    /**
+     * Randomly selects an index in the range 0 (inclusive) to <code>count</code> (exclusive), with
+     * equal probability. Consumes randomness exactly as {@link #chooseConst} and {@link #choose} do
+     * for <code>count</code> choices, so a call site can switch on the result instead of building
+     * an array or closures:
+     * <pre>
+     * switch(Randomness.chooseIndex(ctx, 3)) {
+     *   case 0 -> ...
+     *   case 1 -> ...
+     *   default -> ...
+     * }
+     * </pre>
+     */
+    public static int chooseIndex(PuzzleContext ctx, int count) {
+        return ctx.getRandom().nextInt(count);
+    }
+
+    /**
+     * Returns true with the given probability. Consumes randomness exactly as {@link #chooseWithProb}
+     * does, and returns true when it would choose its first choice.
+     *
+     * @param probability The probability of returning true, in the range 0...1.
+     */
+    public static boolean chance(PuzzleContext ctx, double probability) {
+        return ctx.getRandom().nextFloat() < probability;
+    }
+
     /**
      * Randomly selects one of the given choices, with equal probability, evaluating only the one
      * that is actually selected. Example:
@@ -46,6 +135,31 @@ public enum Randomness {
         return chooseConst(ctx, choices).get();
     }
 
+    /**
+     * Same as {@link #choose(PuzzleContext, Supplier[])} for two choices, without allocating a
+     * varargs array.
+     */
+    public static <Choice> Choice choose(
+        PuzzleContext ctx,
+        Supplier<Choice> choice0,
+        Supplier<Choice> choice1
+    ) {
+        return chooseConst(ctx, choice0, choice1).get();
+    }
+
+    /**
+     * Same as {@link #choose(PuzzleContext, Supplier[])} for three choices, without allocating a
+     * varargs array.
+     */
+    public static <Choice> Choice choose(
+        PuzzleContext ctx,
+        Supplier<Choice> choice0,
+        Supplier<Choice> choice1,
+        Supplier<Choice> choice2
+    ) {
+        return chooseConst(ctx, choice0, choice1, choice2).get();
+    }
+
     /**
      * Randomly runs one of the given closures, with equal probability.
      */
@@ -53,6 +167,22 @@ public enum Randomness {
         chooseConst(ctx, choices).run();
     }
 
+    /**
+     * Same as {@link #choose(PuzzleContext, Runnable[])} for two choices, without allocating a
+     * varargs array.
+     */
+    public static void choose(PuzzleContext ctx, Runnable choice0, Runnable choice1) {
+        chooseConst(ctx, choice0, choice1).run();
+    }
+
+    /**
+     * Same as {@link #choose(PuzzleContext, Runnable[])} for three choices, without allocating a
+     * varargs array.
+     */
+    public static void choose(PuzzleContext ctx, Runnable choice0, Runnable choice1, Runnable choice2) {
+        chooseConst(ctx, choice0, choice1, choice2).run();
+    }
+
     /**
      * Randomly selects one of the given list elements, with equal probability.
      */
@@ -75,7 +205,21 @@ public enum Randomness {
         Choice choice0,
         Choice choice1
     ) {
-        return chooseWithProb(ctx, firstProbability, () -> choice0, () -> choice1);
+        return chance(ctx, firstProbability) ? choice0 : choice1;
+    }
+
+    /**
+     * Chooses between one of two ints, with unequal probability, without boxing.
+     *
+     * @param firstProbability The probability of choosing choice0, in the range 0...1.
+     */
+    public static int chooseWithProb(
+        PuzzleContext ctx,
+        double firstProbability,
+        int choice0,
+        int choice1
+    ) {
+        return chance(ctx, firstProbability) ? choice0 : choice1;
     }
 
     /**
@@ -93,7 +237,7 @@ public enum Randomness {
         Supplier<Choice> choice1
     ) {
         return
-            (ctx.getRandom().nextFloat() < firstProbability
+            (chance(ctx, firstProbability)
                 ? choice0
                 : choice1)
             .get();
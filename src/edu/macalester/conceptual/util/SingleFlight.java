@@ -0,0 +1,80 @@
+package edu.macalester.conceptual.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent computations that share the same key: while a computation for a key is in
+ * flight, any other callers asking for that same key wait for it and share its result instead of
+ * starting their own. Once the computation finishes, the next request for the key starts fresh;
+ * this class does not cache results.
+ */
+public class SingleFlight<Key, Result> {
+    private final ConcurrentMap<Key, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder(), coalesced = new LongAdder();
+
+    /**
+     * Runs <code>computation</code> for the given key, unless another thread is already running
+     * one for an equal key, in which case this method waits for that one and returns its result
+     * (or throws its exception).
+     */
+    public Result run(Key key, Callable<Result> computation) throws Exception {
+        var ours = new CompletableFuture<Result>();
+        var existing = inFlight.putIfAbsent(key, ours);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            Result result = computation.call();
+            ours.complete(result);
+            return result;
+        } catch(Exception | Error e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+
+    private static <Result> Result await(CompletableFuture<Result> future) throws Exception {
+        try {
+            return future.join();
+        } catch(CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The number of computations actually executed.
+     */
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * The number of requests that piggybacked on a computation already in flight.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * The number of distinct keys currently being computed.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
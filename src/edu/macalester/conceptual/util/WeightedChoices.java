@@ -1,81 +1,214 @@
 package edu.macalester.conceptual.util;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Objects;
 
+import edu.macalester.conceptual.context.GeneratorFeature;
 import edu.macalester.conceptual.context.PuzzleContext;
 
 /**
  * A collection of choices with probability weights.
+ * <p>
+ * By default, {@link #choose} scans the list of choices. Puzzles that use
+ * {@link GeneratorFeature#ALIAS_SAMPLING} instead sample in constant time from an alias table,
+ * built on first use. The two map random numbers to choices differently, so they give different
+ * results for the same seed.
  */
 public class WeightedChoices<Choice> {
-    private final List<WeightedChoice> choices;
+    private Object[] values;
+    private long[] weights;
+    private int size;
     private long totalWeight = 0;
+    private volatile AliasTable aliasTable;  // null until needed; cleared when choices change
 
+    /**
+     * Loads choices from a text file with one choice and its weight per line. If the build has
+     * compiled the file into binary form (see {@link CompiledChoiceTable}), reads that instead.
+     */
     public static WeightedChoices<String> fromResource(String resPath) {
+        var compiled = CompiledChoiceTable.fromResource(resPath);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        try (
+            var input = Objects.requireNonNull(
+                WeightedChoices.class.getClassLoader().getResourceAsStream(resPath))
+        ) {
+            return parseText(input.readAllBytes());
+        } catch(IOException e) {
+            throw new RuntimeException("Unable to load choices from " + resPath, e);
+        }
+    }
+
+    static WeightedChoices<String> parseText(byte[] source) throws IOException {
         var result = new WeightedChoices<String>();
         var reader = new BufferedReader(
-            new InputStreamReader(
-                Objects.requireNonNull(
-                    WeightedChoices.class.getClassLoader().getResourceAsStream(resPath))));
-        try (reader) {
-            while (true) {
-                String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                if (line.isBlank()) {
-                    continue;
-                }
-                var fields = line.split("\\s+");
-                if (fields.length != 2) {
-                    throw new IOException("Illegal line format: " + line);
-                }
-                result.add(fields[0], Long.parseLong(fields[1]));
+            new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8));
+        readText(reader, result);
+        return result;
+    }
+
+    static void readText(BufferedReader reader, WeightedChoices<String> result) throws IOException {
+        while (true) {
+            String line = reader.readLine();
+            if (line == null) {
+                break;
             }
-        } catch(Exception e) {
-            throw new RuntimeException("Unable to load choices from " + resPath, e);
+            if (line.isBlank()) {
+                continue;
+            }
+            var fields = line.split("\\s+");
+            if (fields.length != 2) {
+                throw new IOException("Illegal line format: " + line);
+            }
+            result.add(fields[0], Long.parseLong(fields[1]));
         }
-        return result;
     }
 
     public WeightedChoices() {
-        choices = new ArrayList<>();
+        this(new Object[16], new long[16], 0);
+    }
+
+    /**
+     * Takes ownership of the given arrays, whose first <code>size</code> elements are the choices.
+     */
+    WeightedChoices(Object[] values, long[] weights, int size) {
+        this.values = values;
+        this.weights = weights;
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            totalWeight += weights[i];
+        }
     }
 
     public void add(Choice choice, long weight) {
         if (weight < 0) {
             throw new IllegalArgumentException("weight " + weight + " cannot be < 0");
         }
-        choices.add(new WeightedChoice(choice, weight));
+        if (size == values.length) {
+            int capacity = Math.max(16, size * 2);
+            values = Arrays.copyOf(values, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        values[size] = choice;
+        weights[size] = weight;
+        size++;
         totalWeight += weight;
+        aliasTable = null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    Choice choice(int index) {
+        return (Choice) values[index];
     }
 
+    long weight(int index) {
+        return weights[index];
+    }
+
+    @SuppressWarnings("unchecked")
     public Choice choose(PuzzleContext context) {
         if (totalWeight <= 0) {
             throw new IllegalStateException("WeightedChoices has no choices with nonzero weight");
         }
+        if (context.hasFeature(GeneratorFeature.ALIAS_SAMPLING)) {
+            return chooseFromAliasTable(context);
+        }
         long w = context.getRandom().nextLong(totalWeight);
-        for (var cur : choices) {
-            w -= cur.weight;
+        for (int i = 0; i < size; i++) {
+            w -= weights[i];
             if (w <= 0) {
-                return cur.choice;
+                return (Choice) values[i];
             }
         }
         throw new AssertionError("Ran out of choices with " + w + " weight left");
     }
 
-    private class WeightedChoice {
-        private final Choice choice;
-        private final long weight;
+    @SuppressWarnings("unchecked")
+    private Choice chooseFromAliasTable(PuzzleContext context) {
+        var table = aliasTable;
+        if (table == null) {
+            // Races here are harmless: every thread builds an identical table
+            table = new AliasTable(Arrays.copyOf(values, size), Arrays.copyOf(weights, size));
+            aliasTable = table;
+        }
+        return (Choice) table.values[table.index(context.getRandom().nextLong(table.range()))];
+    }
+
+    /**
+     * Vose’s alias method, with exact integer arithmetic. Each of the n columns has a total weight
+     * of W (the total weight of all the choices), split between the column’s own choice and at
+     * most one alias. A single random number in [0, nW) picks both the column and the point within
+     * it, so each choice comes up with probability exactly weight / W.
+     */
+    static final class AliasTable {
+        private final Object[] values;
+        private final long[] ownWeight;  // in each column, weight of the column’s own choice
+        private final int[] alias;       // in each column, the choice taking up remaining weight
+        private final long columnWeight;
+
+        AliasTable(Object[] values, long[] weights) {
+            int n = values.length;
+            this.values = values;
+            ownWeight = new long[n];
+            alias = new int[n];
+            columnWeight = Arrays.stream(weights).sum();
+            Math.multiplyExact(columnWeight, n);  // make sure range() can’t overflow
+
+            // Weights scaled by n, so that an average choice exactly fills one column
+            long[] scaled = new long[n];
+            int[] small = new int[n], large = new int[n];
+            int smallCount = 0, largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights[i] * n;
+                alias[i] = i;
+                if (scaled[i] < columnWeight) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+
+            while (smallCount > 0 && largeCount > 0) {
+                int under = small[--smallCount], over = large[--largeCount];
+                ownWeight[under] = scaled[under];
+                alias[under] = over;
+                scaled[over] -= columnWeight - scaled[under];
+                if (scaled[over] < columnWeight) {
+                    small[smallCount++] = over;
+                } else {
+                    large[largeCount++] = over;
+                }
+            }
+            // With exact arithmetic, whatever remains fills its column exactly
+            while (largeCount > 0) {
+                ownWeight[large[--largeCount]] = columnWeight;
+            }
+            while (smallCount > 0) {
+                ownWeight[small[--smallCount]] = columnWeight;
+            }
+        }
+
+        long range() {
+            return columnWeight * values.length;
+        }
 
-        public WeightedChoice(Choice choice, long weight) {
-            this.choice = choice;
-            this.weight = weight;
+        /**
+         * Maps a number in [0, range()) to the index of a choice.
+         */
+        int index(long r) {
+            int column = (int) (r / columnWeight);
+            return r % columnWeight < ownWeight[column] ? column : alias[column];
         }
     }
 }
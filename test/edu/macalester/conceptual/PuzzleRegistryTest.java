@@ -0,0 +1,26 @@
+package edu.macalester.conceptual;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleRegistryTest {
+    @TestFactory
+    Stream<DynamicTest> descriptorsMatchImplementations() {
+        return PuzzleRegistry.all().stream().map(descriptor ->
+            DynamicTest.dynamicTest(descriptor.name(), () -> {
+                var puzzle = descriptor.create();
+                assertEquals(descriptor.id(), puzzle.id());
+                assertEquals(descriptor.name(), puzzle.name());
+                assertEquals(descriptor.description(), puzzle.description());
+                assertEquals(descriptor.visible(), puzzle.isVisible());
+                assertEquals(descriptor.minDifficulty(), puzzle.minDifficulty());
+                assertEquals(descriptor.goalDifficulty(), puzzle.goalDifficulty());
+                assertEquals(descriptor.maxDifficulty(), puzzle.maxDifficulty());
+                assertNotSame(puzzle, descriptor.create(), "factory must return fresh instances");
+            }));
+    }
+}
@@ -0,0 +1,52 @@
+package edu.macalester.conceptual.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+
+import edu.macalester.conceptual.PuzzleDescriptor;
+import edu.macalester.conceptual.PuzzleRegistry;
+import edu.macalester.conceptual.context.GeneratorFeature;
+import edu.macalester.conceptual.context.NullPuzzlePrinter;
+import edu.macalester.conceptual.context.PuzzleContext;
+
+/**
+ * Measures puzzle generation alone, with output discarded, for each puzzle type at its goal
+ * difficulty, with both the legacy <code>java.util.Random</code> and the
+ * {@link GeneratorFeature#L64X128_RANDOM} generator. Run with
+ * <code>./gradlew generation-benchmark</code>, optionally followed by
+ * <code>--args='type1 type2 ...'</code> to limit which puzzles run.
+ */
+public class GenerationBenchmark {
+    private static final List<Set<GeneratorFeature>> FEATURE_SETS = List.of(
+        Set.of(),
+        Set.of(GeneratorFeature.L64X128_RANDOM));
+
+    public static void main(String[] args) {
+        for (var descriptor : PuzzleRegistry.all()) {
+            if (args.length > 0 && !List.of(args).contains(descriptor.name())) {
+                continue;
+            }
+            for (var features : FEATURE_SETS) {
+                Microbenchmark.run(
+                    "generate " + descriptor.name() + (features.isEmpty() ? "" : " " + features),
+                    20,
+                    () -> generate(descriptor, features));
+            }
+        }
+    }
+
+    private static String generate(PuzzleDescriptor descriptor, Set<GeneratorFeature> features) {
+        var puzzle = descriptor.create();
+        var ctx = PuzzleContext.generate(descriptor.id(), descriptor.goalDifficulty(), features);
+        ctx.enableSolution();
+        ctx.setOutput(new NullPuzzlePrinter());
+        try {
+            ctx.emitPuzzle(() -> puzzle.generate(ctx));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ctx.getPuzzleCode();
+    }
+}
@@ -0,0 +1,58 @@
+package edu.macalester.conceptual.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Minimal timing harness for the in-process benchmarks. Not as rigorous as JMH, but good enough to
+ * compare two implementations of the same thing side by side: each case is warmed up, then timed
+ * over several rounds, reporting the best round along with bytes allocated per operation.
+ */
+public enum Microbenchmark {
+    ; // static utility class; no cases
+
+    private static final int WARMUP_ROUNDS = 5, TIMED_ROUNDS = 10;
+
+    /**
+     * Times <code>operation</code>, which should do one unit of work per call and return something
+     * derived from its result (so the JIT can’t discard the work).
+     */
+    public static void run(String name, int opsPerRound, Supplier<?> operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRound(opsPerRound, operation);
+        }
+
+        long bestNanos = Long.MAX_VALUE;
+        long allocatedBefore = allocatedBytes();
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            bestNanos = Math.min(bestNanos, runRound(opsPerRound, operation));
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-40s %12.1f ns/op %12.1f B/op%n",
+            name,
+            bestNanos / (double) opsPerRound,
+            allocated / (double) (opsPerRound * (long) TIMED_ROUNDS));
+    }
+
+    private static long runRound(int ops, Supplier<?> operation) {
+        int sink = 0;
+        long start = System.nanoTime();
+        for (int n = 0; n < ops; n++) {
+            sink += System.identityHashCode(operation.get()) & 1;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == -1) {
+            System.out.println();  // never happens; keeps sink alive
+        }
+        return elapsed;
+    }
+
+    private static long allocatedBytes() {
+        var threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspotThreads) {
+            return hotspotThreads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
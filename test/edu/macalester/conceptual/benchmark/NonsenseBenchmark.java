@@ -0,0 +1,83 @@
+package edu.macalester.conceptual.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import edu.macalester.conceptual.PuzzleRegistry;
+import edu.macalester.conceptual.context.GeneratorFeature;
+import edu.macalester.conceptual.context.NullPuzzlePrinter;
+import edu.macalester.conceptual.context.PuzzleContext;
+import edu.macalester.conceptual.util.Nonsense;
+
+/**
+ * Compares nonsense word generation with and without the newer generator features, for puzzles
+ * and difficulties that use lots of identifiers, including a <code>--repeat</code>-style session.
+ * Reports generation time and how many candidate words each strategy rejected. Run with <code>./gradlew nonsense-benchmark</code>.
+ */
+public class NonsenseBenchmark {
+    private record Case(String puzzleName, int difficulty, int repeat) { }
+
+    private static final List<Case> CASES = List.of(
+        new Case("class", 100, 1),
+        new Case("rel", 50, 1),
+        new Case("vars", 5, 1),
+        new Case("rel", 50, 20));  // like --repeat 20
+
+    private static final List<Set<GeneratorFeature>> FEATURE_SETS = List.of(
+        Set.of(),
+        Set.of(GeneratorFeature.BOUNDED_WORDS),
+        EnumSet.of(GeneratorFeature.ALIAS_SAMPLING, GeneratorFeature.BOUNDED_WORDS),
+        Set.of(GeneratorFeature.SCOPED_IDENTIFIERS),
+        EnumSet.of(GeneratorFeature.BOUNDED_WORDS, GeneratorFeature.SCOPED_IDENTIFIERS));
+
+    public static void main(String[] args) {
+        for (var testCase : CASES) {
+            for (var features : FEATURE_SETS) {
+                var label = testCase.puzzleName() + "@" + testCase.difficulty()
+                    + (testCase.repeat() > 1 ? " x" + testCase.repeat() : "")
+                    + " " + features;
+                Microbenchmark.run(label, testCase.repeat() > 1 ? 1 : 10, () -> generate(testCase, features));
+
+                Nonsense.resetWordStats();
+                int runs = Math.max(1, 20 / testCase.repeat());
+                for (int n = 0; n < runs; n++) {
+                    generate(testCase, features);
+                }
+                int puzzles = runs * testCase.repeat();
+                var stats = Nonsense.wordStats();
+                System.out.printf("    %8.1f words/puzzle, %5.1f%% of candidates rejected"
+                        + " (length %d, excluded %d, used %d), %d relaxations%n",
+                    stats.accepted() / (double) puzzles,
+                    100.0 * (stats.candidates() - stats.accepted()) / stats.candidates(),
+                    stats.rejectedForLength(),
+                    stats.rejectedAsExcluded(),
+                    stats.rejectedAsUsed(),
+                    stats.lengthRelaxations());
+            }
+        }
+    }
+
+    private static String generate(Case testCase, Set<GeneratorFeature> features) {
+        var descriptor = PuzzleRegistry.findByName(testCase.puzzleName());
+        var puzzle = descriptor.create();
+        var ctx = PuzzleContext.generate(descriptor.id(), (byte) testCase.difficulty(), features);
+        ctx.enableSolution();
+        ctx.setOutput(new NullPuzzlePrinter());
+        try {
+            ctx.emitPuzzle(() -> {
+                for (int repeat = testCase.repeat(); repeat > 0; repeat--) {
+                    puzzle.generate(ctx);
+                    if (repeat > 1) {
+                        ctx.resetSectionCounter();
+                    }
+                }
+            });
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ctx.getPuzzleCode();
+    }
+}
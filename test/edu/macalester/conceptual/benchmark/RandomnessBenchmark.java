@@ -0,0 +1,77 @@
+package edu.macalester.conceptual.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import edu.macalester.conceptual.context.NullPuzzlePrinter;
+import edu.macalester.conceptual.context.PuzzleContext;
+import edu.macalester.conceptual.util.ChoiceDeck;
+import edu.macalester.conceptual.util.IntChoiceDeck;
+import edu.macalester.conceptual.util.Randomness;
+
+/**
+ * Compares the general-purpose {@link Randomness} methods (varargs arrays, closures, boxing) with
+ * their allocation-free counterparts, and the old and new deck implementations. Each pair consumes
+ * the same random numbers and gives the same results. Each operation makes 1000 choices. Run with
+ * <code>./gradlew randomness-benchmark</code>.
+ */
+public class RandomnessBenchmark {
+    private static final int CHOICES_PER_OP = 1000;
+    private static final List<Integer> CARDS = List.of(0, 1, 2, 3, 4, 5, 6, 7);
+
+    public static void main(String[] args) throws IOException {
+        var ctx = PuzzleContext.generate((byte) 0, (byte) 0);
+        ctx.setOutput(new NullPuzzlePrinter());
+        ctx.emitPuzzle(() -> {
+            Microbenchmark.run("chooseConst varargs", 1, () -> repeat(() ->
+                Randomness.chooseConst(ctx, new String[] { "<", "<=", "!=" }).length()));
+            Microbenchmark.run("chooseConst fixed arity", 1, () -> repeat(() ->
+                Randomness.chooseConst(ctx, "<", "<=", "!=").length()));
+
+            Microbenchmark.run("choose varargs closures", 1, () -> repeat(() ->
+                Randomness.choose(ctx, new Supplier[] {
+                    () -> ctx.getRandom().nextInt(10),
+                    () -> ctx.getRandom().nextInt(100)
+                }).hashCode()));
+            Microbenchmark.run("choose fixed arity closures", 1, () -> repeat(() ->
+                Randomness.choose(ctx,
+                    () -> ctx.getRandom().nextInt(10),
+                    () -> ctx.getRandom().nextInt(100))));
+            Microbenchmark.run("chooseIndex", 1, () -> repeat(() ->
+                Randomness.chooseIndex(ctx, 2) == 0
+                    ? ctx.getRandom().nextInt(10)
+                    : ctx.getRandom().nextInt(100)));
+
+            Microbenchmark.run("chooseWithProb closures", 1, () -> repeat(() ->
+                Randomness.chooseWithProb(ctx, 0.7, () -> 0, () -> 1)));
+            Microbenchmark.run("chooseWithProb int", 1, () -> repeat(() ->
+                Randomness.chooseWithProb(ctx, 0.7, 0, 1)));
+            Microbenchmark.run("chance", 1, () -> repeat(() ->
+                Randomness.chance(ctx, 0.7) ? 0 : 1));
+
+            var legacyDeck = new ArrayList<Integer>();
+            Microbenchmark.run("deck draw with remove(0)", 1, () -> repeat(() -> {
+                if (legacyDeck.isEmpty()) {
+                    legacyDeck.addAll(CARDS);
+                    Collections.shuffle(legacyDeck, ctx.getRandom());
+                }
+                return legacyDeck.remove(0);
+            }));
+            var deck = new ChoiceDeck<>(ctx, CARDS);
+            Microbenchmark.run("ChoiceDeck draw", 1, () -> repeat(deck::draw));
+            var intDeck = IntChoiceDeck.range(ctx, CARDS.size());
+            Microbenchmark.run("IntChoiceDeck draw", 1, () -> repeat(intDeck::draw));
+        });
+    }
+
+    private static int repeat(Supplier<Integer> choice) {
+        int sink = 0;
+        for (int n = 0; n < CHOICES_PER_OP; n++) {
+            sink += choice.get();
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,106 @@
+package edu.macalester.conceptual.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Measures cold start time and the number of classes loaded for common CLI commands, each in a
+ * fresh JVM. Run with <code>./gradlew startup-benchmark</code>, optionally passing the number of
+ * timed runs per command: <code>./gradlew startup-benchmark --args 10</code>.
+ * <p>
+ * The per-subsystem class counts show whether commands that don’t need AWT, ImageIO, JavaParser,
+ * or the graphics library are loading them anyway.
+ */
+public class StartupBenchmark {
+    private static final List<List<String>> COMMANDS = List.of(
+        List.of("list"),
+        List.of("--help"),
+        List.of("--version"),
+        List.of("gen", "loop"),
+        List.of("gen", "vars"),
+        List.of("solve", "2mgg-4Ldu-2mq7-Ld3"),
+        List.of("solve", "--html", "-", "2mgg-4Ldu-2mq7-Ld3"),
+        List.of("solve", "--html", "-", "azy1-v4Lt-rq5L-7g92"));
+
+    private static final Map<String, String> SUBSYSTEMS = new LinkedHashMap<>();
+    static {
+        SUBSYSTEMS.put("awt", "java.awt. sun.awt. sun.java2d.");
+        SUBSYSTEMS.put("imageio", "javax.imageio. com.sun.imageio.");
+        SUBSYSTEMS.put("javaparser", "com.github.javaparser.");
+        SUBSYSTEMS.put("graphics", "edu.macalester.graphics.");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        System.out.printf("%-45s %9s %8s", "command", "median ms", "classes");
+        for (var subsystem : SUBSYSTEMS.keySet()) {
+            System.out.printf(" %10s", subsystem);
+        }
+        System.out.println();
+
+        for (var command : COMMANDS) {
+            runCommand(command, null);  // warm up disk cache
+            var times = new ArrayList<Long>();
+            for (int n = 0; n < runs; n++) {
+                times.add(runCommand(command, null));
+            }
+            times.sort(null);
+
+            var classLog = Files.createTempFile("startup-benchmark", ".log");
+            try {
+                runCommand(command, classLog);
+                List<String> loaded;
+                try (Stream<String> lines = Files.lines(classLog)) {
+                    loaded = lines
+                        .filter(line -> line.contains(" source: "))
+                        .map(line -> line.replaceFirst(".*\\] ", ""))
+                        .toList();
+                }
+
+                System.out.printf("%-45s %9d %8d",
+                    String.join(" ", command), times.get(times.size() / 2), loaded.size());
+                for (var prefixes : SUBSYSTEMS.values()) {
+                    System.out.printf(" %10d", loaded.stream()
+                        .filter(name -> Stream.of(prefixes.split(" ")).anyMatch(name::startsWith))
+                        .count());
+                }
+                System.out.println();
+            } finally {
+                Files.delete(classLog);
+            }
+        }
+    }
+
+    /**
+     * Runs the CLI in a new JVM, discarding its output, and returns the elapsed wall time in ms.
+     * If <code>classLog</code> is non-null, the JVM logs every class it loads to that file.
+     */
+    private static long runCommand(List<String> args, Path classLog)
+        throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Djava.awt.headless=true");
+        if (classLog != null) {
+            command.add("-Xlog:class+load=info:file=" + classLog);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("edu.macalester.conceptual.cli.CommandLine");
+        command.addAll(args);
+
+        long start = System.nanoTime();
+        var process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        process.waitFor();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
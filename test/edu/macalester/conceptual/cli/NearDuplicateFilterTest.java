@@ -0,0 +1,41 @@
+package edu.macalester.conceptual.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearDuplicateFilterTest {
+    @Test
+    void replacesGeneratedWordsWithPlaceholders() {
+        var words = Set.of("fazz", "blep", "zorp");
+        assertEquals(
+            List.of("int", "#1", "=", "#2", "(", "#1", ")", ";"),
+            NearDuplicateFilter.normalizedTokens("int fazz = blep(fazz);", words::contains));
+        assertEquals(
+            List.of("#1#2", "#2_#1", "get#2", "#2", "#1", "x1"),
+            NearDuplicateFilter.normalizedTokens("fazzBleps BLEP_FAZZ getBlep Bleps fazz x1", words::contains));
+        assertEquals(  // words ending in s pluralize with es
+            List.of("#1", "#1"),
+            NearDuplicateFilter.normalizedTokens("zorps zorpses", Set.of("zorps")::contains));
+    }
+
+    @Test
+    void rejectsPuzzlesDifferingOnlyInNames() {
+        var filter = new NearDuplicateFilter();
+        var code = "class {0} '{' int {1}; void f() '{' {1}++; while ({1} < 10) '{' {2}({1}); '}' '}' '}'";
+        assertTrue(filter.addIfDistinct(
+            MessageFormat.format(code, "Fazz", "blep", "zorp"),
+            Set.of("fazz", "blep", "zorp")::contains));
+        assertFalse(filter.addIfDistinct(
+            MessageFormat.format(code, "Quib", "mert", "dox"),
+            Set.of("quib", "mert", "dox")::contains));
+        assertTrue(filter.addIfDistinct(
+            "for (int i = 0; i < 3; i++) { System.out.println(i * 2 + 7); } return -1;",
+            word -> false));
+        assertEquals(2, filter.size());
+    }
+}
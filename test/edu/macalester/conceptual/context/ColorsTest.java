@@ -0,0 +1,21 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColorsTest {
+    @Test
+    void hsbToRGBMatchesAwt() {
+        for (float h = -1; h <= 2; h += 0.01f) {
+            for (float s = 0; s <= 1; s += 0.05f) {
+                for (float b = 0; b <= 1; b += 0.05f) {
+                    assertEquals(Color.HSBtoRGB(h, s, b), Colors.hsbToRGB(h, s, b),
+                        "h=" + h + " s=" + s + " b=" + b);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyPasteObfuscationTest {
+    private static final String[] FRAGMENTS = {
+        "a", "Z", "9", " ", ";", "#", "&", "/", "*", "_", "\n", "\r", "\u2028", "\u0085",
+        "/*", "*/", "___", "&lt;", "&#39;", "&#128512;", "&amp", "&;", "/* x */", "___x___",
+    };
+
+    @Test
+    void leavesCommentsPlaceholdersAndEntitiesIntact() {
+        var html = "/* comment */ ___blank___ &lt;&#39;";
+        var result = CopyPasteObfuscation.obfuscate(html, new Random(0));
+        var visible = result.replaceAll("<div class='hidden-warning' aria-hidden='true'>.*?</div>", "");
+        assertEquals(html, visible);
+        for (var token : new String[] { "/* comment */", "___blank___", "&lt;", "&#39;" }) {
+            assertTrue(result.contains(token), token);
+        }
+    }
+
+    @Test
+    void matchesPreviousImplementation() {
+        var inputRand = new Random(0);
+        for (int n = 0; n < 20000; n++) {
+            var html = new StringBuilder();
+            for (int len = inputRand.nextInt(30); len > 0; len--) {
+                html.append(FRAGMENTS[inputRand.nextInt(FRAGMENTS.length)]);
+            }
+
+            long seed = inputRand.nextLong();
+            var legacyRand = new Random(seed);
+            var rand = new Random(seed);
+            assertEquals(
+                legacyObfuscate(html.toString(), legacyRand),
+                CopyPasteObfuscation.obfuscate(html, rand),
+                html.toString());
+            assertEquals(legacyRand.nextLong(), rand.nextLong(), "random sequence diverged");
+        }
+    }
+
+    private static String legacyObfuscate(String html, Random obfuscationRand) {
+        return Pattern
+            .compile("/\\*.*?\\*/|___\\w+___|&#?\\w+;|.|\n|$")
+            .matcher(html)
+            .replaceAll(match -> {
+                if (obfuscationRand.nextInt(4) == 0) {
+                    String obfuscationText =
+                        (obfuscationRand.nextInt(10) == 0)
+                            ? " Remember: using the computer to help is strictly prohibited"
+                                + " for official attempts! The answer has to come from your own head. "
+                            : ("" + (char) (' ' + obfuscationRand.nextInt('~' - ' ' + 1)))
+                                .replace("$", "\\$");
+                    return "<div class='hidden-warning' aria-hidden='true'>" + obfuscationText + "</div>"
+                        + match.group();
+                } else {
+                    return match.group();
+                }
+            });
+    }
+}
@@ -0,0 +1,68 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import edu.macalester.graphics.GraphicsGroup;
+import edu.macalester.graphics.GraphicsText;
+import edu.macalester.graphics.Path;
+import edu.macalester.graphics.Point;
+import edu.macalester.graphics.Rectangle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphicsFingerprintTest {
+    @Test
+    void identicalGraphsMatch() {
+        assertEquals(
+            GraphicsFingerprint.of(diagram(Color.RED, "x"), 0.5f),
+            GraphicsFingerprint.of(diagram(Color.RED, "x"), 0.5f));
+    }
+
+    @Test
+    void anyDifferenceChangesFingerprint() {
+        var original = GraphicsFingerprint.of(diagram(Color.RED, "x"), 0.5f);
+        assertNotEquals(original, GraphicsFingerprint.of(diagram(Color.BLUE, "x"), 0.5f));
+        assertNotEquals(original, GraphicsFingerprint.of(diagram(Color.RED, "y"), 0.5f));
+        assertNotEquals(original, GraphicsFingerprint.of(diagram(Color.RED, "x"), 0.25f));
+
+        var moved = diagram(Color.RED, "x");
+        moved.setPosition(1, 0);
+        assertNotEquals(original, GraphicsFingerprint.of(moved, 0.5f));
+    }
+
+    @Test
+    void unknownNodesHaveNoFingerprint() {
+        var group = diagram(Color.RED, "x");
+        group.add(new Rectangle(0, 0, 1, 1) { });  // subclass could draw anything
+        assertNull(GraphicsFingerprint.of(group, 0.5f));
+    }
+
+    @Test
+    void htmlEmbedsRepeatedDiagramsOnce() {
+        var html = new StringWriter();
+        var printer = new HtmlPuzzlePrinter(new PrintWriter(html));
+        printer.showGraphics("first", diagram(Color.RED, "x"));
+        printer.showGraphics("second", diagram(Color.RED, "x"));
+        printer.showGraphics("third", diagram(Color.RED, "y"));
+        printer.close();
+
+        var output = html.toString();
+        assertEquals(2, output.split("<polygon").length - 1, output);
+        assertEquals(1, output.split("<use href='#diagram-").length - 1, output);
+    }
+
+    private static GraphicsGroup diagram(Color color, String label) {
+        var group = new GraphicsGroup();
+        var box = new Rectangle(0, 0, 20, 10);
+        box.setFillColor(color);
+        group.add(box);
+        group.add(new Path(List.of(new Point(0, 0), new Point(5, 5), new Point(0, 10)), true), 20, 0);
+        group.add(new GraphicsText(label, 2, 8));
+        return group;
+    }
+}
@@ -0,0 +1,36 @@
+package edu.macalester.conceptual.context;
+
+import com.google.common.html.HtmlEscapers;
+
+import java.util.regex.Pattern;
+
+import edu.macalester.conceptual.benchmark.Microbenchmark;
+
+/**
+ * Compares {@link HtmlEscaping} to the regex-based escaping HtmlPuzzlePrinter used previously.
+ * Run with <code>./gradlew html-escape-benchmark</code>.
+ */
+public class HtmlEscapeBenchmark {
+    private static final String
+        PROSE = "Consider the following code. What does it print? Be sure to show your work.",
+        CODE = """
+            if (fazz < 3 && !(blep > fazz)) {
+                System.out.println("Hello, world");
+                return 'x';
+            }""",
+        UNICODE = "Remember: write “Puzzle 1” ← _very important!_ … café ✓";
+
+    public static void main(String[] args) {
+        for (var text : new String[] { PROSE, CODE, UNICODE }) {
+            var label = text.substring(0, 12).replaceAll("\\s+", " ");
+            Microbenchmark.run("regex escape:  " + label, 100_000, () -> legacyEscape(text));
+            Microbenchmark.run("single pass:   " + label, 100_000, () -> HtmlEscaping.escape(text));
+        }
+    }
+
+    private static String legacyEscape(String text) {
+        return Pattern.compile("[^\0-~]")
+            .matcher(HtmlEscapers.htmlEscaper().escape(text))
+            .replaceAll(match -> "&#" + Character.codePointAt(match.group(), 0) + ";");
+    }
+}
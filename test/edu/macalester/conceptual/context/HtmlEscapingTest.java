@@ -0,0 +1,46 @@
+package edu.macalester.conceptual.context;
+
+import com.google.common.html.HtmlEscapers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlEscapingTest {
+    @Test
+    void examples() {
+        assertEquals("plain text", HtmlEscaping.escape("plain text"));
+        assertEquals("a &lt; b &amp;&amp; c &gt; &quot;d&quot; &#39;e&#39;",
+            HtmlEscaping.escape("a < b && c > \"d\" 'e'"));
+        assertEquals("caf&#233; &#8220;x&#8221; &#128512; &#127;",
+            HtmlEscaping.escape("café “x” 😀 \u007f"));
+    }
+
+    @Test
+    void matchesPreviousImplementation() {
+        var rand = new Random(0);
+        for (int n = 0; n < 10000; n++) {
+            var text = new StringBuilder();
+            for (int len = rand.nextInt(40); len > 0; len--) {
+                text.append(switch (rand.nextInt(6)) {
+                    case 0 -> (char) rand.nextInt(0x20, 0x80);
+                    case 1 -> "<>&\"'".charAt(rand.nextInt(5));
+                    case 2 -> (char) rand.nextInt(0x80, 0x3000);
+                    case 3 -> "😀";                     // surrogate pair
+                    case 4 -> (char) rand.nextInt(0xD800, 0xE000);  // lone surrogate
+                    default -> (char) rand.nextInt(0x20, 0x7F);
+                });
+            }
+            assertEquals(legacyEscape(text.toString()), HtmlEscaping.escape(text.toString()));
+        }
+    }
+
+    private static String legacyEscape(String text) {
+        return Pattern.compile("[^\0-~]")
+            .matcher(HtmlEscapers.htmlEscaper().escape(text))
+            .replaceAll(match -> "&#" + Character.codePointAt(match.group(), 0) + ";");
+    }
+}
@@ -0,0 +1,88 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlPuzzleBundleTest {
+    @Test
+    void sharesOneHeaderAcrossPuzzles() throws Exception {
+        var html = new StringWriter();
+        try (var bundle = new HtmlPuzzleBundle(new PrintWriter(html))) {
+            writePuzzles(bundle, "one", "two", "three");
+        }
+
+        var output = html.toString();
+        assertEquals(1, count(output, "<style"), output);
+        assertEquals(1, count(output, "</html>"), output);
+        for (var code : new String[] { "one", "two", "three" }) {
+            assertTrue(output.contains("<section id='" + code + "'>\n<h1"), output);
+            assertTrue(output.contains("Solution to " + code), output);
+        }
+        assertEquals(3, count(output, "</section>"), output);
+    }
+
+    @Test
+    void paginatesAndCompresses() throws Exception {
+        var dir = Files.createTempDirectory("puzzle-bundle");
+        try (var bundle = new HtmlPuzzleBundle(dir.resolve("solutions.html.gz"), 2)) {
+            writePuzzles(bundle, "one", "two", "three");
+            assertEquals(2, bundle.pageCount());
+        }
+
+        var page1 = readGzipped(dir.resolve("solutions-1.html.gz"));
+        var page2 = readGzipped(dir.resolve("solutions-2.html.gz"));
+        assertTrue(page1.contains("<section id='two'>"), page1);
+        assertFalse(page1.contains("<section id='three'>"), page1);
+        assertTrue(page1.contains("href='solutions-2.html'"), page1);
+        assertTrue(page2.contains("<section id='three'>"), page2);
+        assertTrue(page2.contains("href='solutions-1.html'"), page2);
+        assertTrue(page2.endsWith("</html>\n"), page2);
+    }
+
+    @Test
+    void discardedPuzzlesAreLeftOut() throws Exception {
+        var html = new StringWriter();
+        try (var bundle = new HtmlPuzzleBundle(new PrintWriter(html))) {
+            writePuzzles(bundle, "one");
+            try (var printer = bundle.startPuzzle("broken")) {
+                printer.paragraph("Partial output");
+            }
+            bundle.discardPuzzle();
+            writePuzzles(bundle, "two");
+            assertEquals(2, bundle.puzzleCount());
+        }
+
+        var output = html.toString();
+        assertFalse(output.contains("broken"), output);
+        assertFalse(output.contains("Partial output"), output);
+        assertEquals(2, count(output, "</section>"), output);
+    }
+
+    private static void writePuzzles(HtmlPuzzleBundle bundle, String... codes) throws IOException {
+        for (var code : codes) {
+            try (var printer = bundle.startPuzzle(code)) {
+                printer.title("Puzzle " + code);
+                printer.paragraph("Solution to " + code);
+            }
+        }
+    }
+
+    private static String readGzipped(Path file) throws IOException {
+        try (var in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int count(String haystack, String needle) {
+        return haystack.split(needle, -1).length - 1;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import edu.macalester.graphics.Ellipse;
+import edu.macalester.graphics.GraphicsGroup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlPuzzlePrinterTest {
+    @Test
+    void writesImageAssetsWithContentHashNames() throws Exception {
+        var assetDir = Files.createTempDirectory("puzzle-assets");
+        var html = new StringWriter();
+        var printer = new HtmlPuzzlePrinter(new PrintWriter(html));
+        printer.enableImageAssets(assetDir, "assets");
+        printer.showGraphics("first", bitmapOnlyDiagram(10));
+        printer.showGraphics("again", bitmapOnlyDiagram(10));
+        printer.showGraphics("other", bitmapOnlyDiagram(20));
+        printer.close();
+
+        var output = html.toString();
+        assertFalse(output.contains("base64"), output);
+        var matcher = Pattern.compile("src='assets/([0-9a-f]{32}\\.png)'").matcher(output);
+        int count = 0;
+        while (matcher.find()) {
+            assertTrue(Files.size(assetDir.resolve(matcher.group(1))) > 0);
+            count++;
+        }
+        assertEquals(3, count, output);
+        try (var files = Files.list(assetDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void embedsRepeatedBitmapsOnce() throws Exception {
+        var html = new StringWriter();
+        var printer = new HtmlPuzzlePrinter(new PrintWriter(html));
+        printer.showGraphics("first", bitmapOnlyDiagram(10));
+        printer.showGraphics("again", bitmapOnlyDiagram(10));
+        printer.close();
+
+        var output = html.toString();
+        var matcher = Pattern.compile("<image id='([^']+)'[^>]*href='data:image/png;base64,").matcher(output);
+        assertTrue(matcher.find(), output);
+        var id = matcher.group(1);
+        assertFalse(matcher.find(), output);
+        assertEquals(1, output.split("base64,", -1).length - 1, output);
+        assertTrue(output.contains("<use href='#" + id + "'/>"), output);
+    }
+
+    @Test
+    void failedRendersAreNotCached() throws Exception {
+        var fingerprint = "failing-diagram-" + System.nanoTime();
+        var failed = HtmlPuzzlePrinter.Rasterizer.cached(fingerprint, () -> () -> {
+            throw new IllegalStateException("render failed");
+        });
+        assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+
+        var retried = HtmlPuzzlePrinter.Rasterizer.cached(fingerprint, () -> () ->
+            new HtmlPuzzlePrinter.Png(1, 1, new byte[0]));
+        assertNotSame(failed, retried);
+        assertEquals(1, retried.get(10, TimeUnit.SECONDS).width());
+
+        assertSame(retried, HtmlPuzzlePrinter.Rasterizer.cached(fingerprint, () -> {
+            throw new AssertionError("successful render should be cached");
+        }));
+    }
+
+    private static GraphicsGroup bitmapOnlyDiagram(double size) {
+        var group = new GraphicsGroup();
+        group.add(new Ellipse(0, 0, size, size));  // SvgRenderer doesn’t support ellipses
+        return group;
+    }
+}
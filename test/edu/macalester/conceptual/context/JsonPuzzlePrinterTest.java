@@ -0,0 +1,74 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPuzzlePrinterTest {
+    @Test
+    void streamsEvents() {
+        var out = new StringWriter();
+        var printer = new JsonPuzzlePrinter(out);
+        printer.title("Puzzle \"1\"");
+        printer.paragraph("Is `x < y` *really* _{0}_?", "true");
+        printer.solutionStart();
+        printer.codeBlock("  a\n  b\t___c___  ");
+        printer.solutionEnd();
+        printer.close();
+
+        assertEquals(
+            """
+            {"format":"conceptual-puzzle-events","version":1,"events":[
+            {"type":"title","text":"Puzzle \\"1\\""}
+            ,{"type":"paragraph","spans":[{"text":"Is "},{"text":"x < y","styles":["code"]},\
+            {"text":" "},{"text":"really","styles":["bold"]},{"text":" "},\
+            {"text":"true","styles":["italic"]},{"text":"?"}]}
+            ,{"type":"solutionStart"}
+            ,{"type":"code","text":"a\\n  b\\t___c___"}
+            ,{"type":"solutionEnd"}
+            ]}
+            """,
+            out.toString());
+    }
+
+    @Test
+    void nestedStylesAndListItems() {
+        var out = new StringWriter();
+        var printer = new JsonPuzzlePrinter(out);
+        printer.bulletList("*a `b` c*", "plain");
+        printer.numberedList(() -> printer.heading("inner", false));
+        printer.close();
+
+        assertTrue(out.toString().contains(
+            "{\"type\":\"bulletList\",\"items\":[[{\"text\":\"a \",\"styles\":[\"bold\"]},"
+                + "{\"text\":\"b\",\"styles\":[\"code\",\"bold\"]},"
+                + "{\"text\":\" c\",\"styles\":[\"bold\"]}],[{\"text\":\"plain\"}]]}"),
+            out.toString());
+        assertTrue(out.toString().contains(
+            "{\"type\":\"numberedListStart\"}\n,{\"type\":\"itemStart\",\"number\":1}\n"
+                + ",{\"type\":\"heading\",\"text\":\"inner\",\"primary\":false}\n"
+                + ",{\"type\":\"itemEnd\"}\n,{\"type\":\"numberedListEnd\"}\n"),
+            out.toString());
+    }
+
+    @Test
+    void silencedOutputStillRunsListItems() {
+        var out = new StringWriter();
+        var printer = new JsonPuzzlePrinter(out);
+        List<String> ran = new ArrayList<>();
+        printer.silence();
+        printer.paragraph("hidden");
+        printer.numberedList(() -> ran.add("item"));
+        printer.unsilence();
+        printer.close();
+
+        assertEquals(List.of("item"), ran);
+        assertEquals(
+            "{\"format\":\"conceptual-puzzle-events\",\"version\":1,\"events\":[\n]}\n",
+            out.toString());
+    }
+}
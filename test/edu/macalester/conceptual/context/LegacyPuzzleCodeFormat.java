@@ -0,0 +1,118 @@
+package edu.macalester.conceptual.context;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * The previous <code>BigInteger</code>-based puzzle code encoding from {@link PuzzleCode}, kept as
+ * a reference implementation for {@link PuzzleCodeCodecTest} and {@link PuzzleCodeCodecBenchmark}.
+ */
+enum LegacyPuzzleCodeFormat {
+    ; // static utility class; no cases
+
+    static PuzzleCode parse(String puzzleCode) throws InvalidPuzzleCodeException {
+        var cleanedPuzzleCode = puzzleCode.replaceAll("-", "");
+        // No need to handle L → l; BigInteger is case-insensitive
+
+        try {
+            return checkAndStripChecksum(new BigInteger(cleanedPuzzleCode, 36));
+        } catch (NumberFormatException nfe) {
+            throw new InvalidPuzzleCodeException("Invalid format; this does not look like a puzzle code");
+        }
+    }
+
+    static String toString(PuzzleCode code) {
+        return packAndAddChecksum(code)
+            .toString(36)
+            .replaceAll("l", "L")  // Avoid ambiguous chars (lowercase i and o are fine)
+            .replaceAll(".{4}(?=.)", "$0-");
+    }
+
+    private enum CodeLayout {
+        FEATURES(1),
+        PUZZLE_ID(1),
+        DIFFICULTY(1),
+        RANDOM_SEED(8),
+        CHECKSUM(1);
+
+        private final int size;
+
+        CodeLayout(int size) {
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int offset() {
+            return offsetTo(this);
+        }
+
+        static int totalSize() {
+            return offsetTo(null);
+        }
+
+        private static int offsetTo(CodeLayout target) {
+            return Arrays.stream(values())
+                .takeWhile(component -> component != target)
+                .mapToInt(CodeLayout::size)
+                .sum();
+        }
+    }
+
+    private static BigInteger packAndAddChecksum(PuzzleCode code) {
+        var bytes = ByteBuffer.allocate(CodeLayout.totalSize());
+        bytes.put(CodeLayout.PUZZLE_ID.offset(), code.puzzleID());
+        bytes.put(CodeLayout.DIFFICULTY.offset(), code.difficulty());
+        bytes.putLong(CodeLayout.RANDOM_SEED.offset(), code.seed());
+        bytes.put(CodeLayout.FEATURES.offset(), code.features());
+        bytes.put(CodeLayout.CHECKSUM.offset(), computeChecksum(bytes));
+        return new BigInteger(bytes.array());
+    }
+
+    private static PuzzleCode checkAndStripChecksum(BigInteger num) throws InvalidPuzzleCodeException {
+        var rawBytes = num.toByteArray();
+        if (rawBytes.length > CodeLayout.totalSize()) {
+            throw new InvalidPuzzleCodeException("Seed code is too long");
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(CodeLayout.totalSize());
+        bytes.position(bytes.limit() - rawBytes.length);  // include leading zeros
+        bytes.put(rawBytes);
+
+        byte checksum = bytes.get(CodeLayout.CHECKSUM.offset());
+        bytes.put(CodeLayout.CHECKSUM.offset(), (byte) 0);  // checksum was computed when field was 0
+        if (checksum != computeChecksum(bytes)) {
+            throw new InvalidPuzzleCodeException(
+                MessageFormat.format(
+                    "Checksum does not match; is there a typo? ({0} != {1})",
+                    checksum, computeChecksum(bytes)));
+        }
+
+        byte features = bytes.get(CodeLayout.FEATURES.offset());
+        if (!GeneratorFeature.isSupported(features)) {
+            throw new InvalidPuzzleCodeException(
+                "This puzzle code uses generator features that this version does not support;"
+                    + " try updating the puzzle generator");
+        }
+
+        return new PuzzleCode(
+            bytes.get(CodeLayout.PUZZLE_ID.offset()),
+            bytes.get(CodeLayout.DIFFICULTY.offset()),
+            bytes.getLong(CodeLayout.RANDOM_SEED.offset()),
+            features);
+    }
+
+    private static byte computeChecksum(ByteBuffer bytes) {
+        int start = bytes.get(CodeLayout.FEATURES.offset()) == 0
+            ? CodeLayout.FEATURES.offset() + CodeLayout.FEATURES.size()
+            : 0;
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes.array(), start, bytes.capacity() - start);
+        return (byte) checksum.getValue();
+    }
+}
@@ -0,0 +1,64 @@
+package edu.macalester.conceptual.context;
+
+import java.io.PrintWriter;
+
+/**
+ * The previous regex-based word wrapping from {@link ConsolePuzzlePrinter}, kept as a reference
+ * implementation for {@link WordWrapperTest} and {@link WordWrapperBenchmark}.
+ */
+class LegacyWordWrapper extends WordWrapper {
+    private final PrintWriter out;
+    private final int outputWidth;
+    private int curColumn;
+
+    LegacyWordWrapper(PrintWriter out, int width) {
+        super(out, width);
+        this.out = out;
+        this.outputWidth = width;
+    }
+
+    @Override
+    void print(String str, String indent, boolean wordWrapEnabled) {
+        str = str.replace("\r\n", "\n"); // normalize Windows CRLF line breaks
+        for (String part : str.split("(?=\n)|(?<=\n)")) { // lines + terminators as separate matches
+            if (part.equals("\n")) {
+                newline();
+            } else {
+                var wrappingUnit = wordWrapEnabled
+                    ? part.split(" ")
+                    : new String[] { part };
+                boolean firstUnit = true;
+                for (var unit : wrappingUnit) {
+                    if (wordWrapEnabled && curColumn + visibleWidth(unit) >= outputWidth) {
+                        newline();
+                    }
+
+                    if (curColumn == 0) {
+                        out.print(indent);
+                        curColumn += indent.length();
+                    } else if (!firstUnit) {
+                        out.print(" ");
+                        curColumn++;
+                    }
+
+                    out.print(unit);
+
+                    curColumn += visibleWidth(unit);
+                    firstUnit = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    void newline() {
+        out.println();
+        curColumn = 0;
+    }
+
+    private int visibleWidth(String word) {
+        return word
+            .replaceAll("\u001b\\[[0-9;]*[a-z]", "")
+            .length();
+    }
+}
@@ -0,0 +1,79 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedSpliceWriterTest {
+    private final StringWriter target = new StringWriter();
+    private final OrderedSpliceWriter writer = new OrderedSpliceWriter(target);
+
+    @Test
+    void splicesInOrderAndWritesEagerlyUpToFirstPending() throws Exception {
+        var first = new CompletableFuture<String>();
+        var second = new CompletableFuture<String>();
+
+        writer.write("a");
+        writer.splice(first);
+        writer.write("b");
+        writer.splice(second);
+        writer.write("c");
+        assertEquals("a", target.toString());
+
+        second.complete("[2]");
+        writer.flush();
+        assertEquals("a", target.toString());  // still blocked behind first
+
+        first.complete("[1]");
+        writer.flush();
+        assertEquals("a[1]b[2]c", target.toString());
+    }
+
+    @Test
+    void writesCatchUpOnceHeadSpliceCompletes() throws Exception {
+        var first = new CompletableFuture<String>();
+        var second = new CompletableFuture<String>();
+
+        writer.write("a");
+        writer.splice(first);
+        writer.write("b");
+        writer.splice(second);
+        writer.write("c");
+
+        first.complete("[1]");
+        writer.write("d");  // no flush or splice
+        assertEquals("a[1]b", target.toString());
+
+        second.complete("[2]");
+        writer.write("e".toCharArray());
+        assertEquals("a[1]b[2]cde", target.toString());
+    }
+
+    @Test
+    void finishWaitsForPendingSplices() throws Exception {
+        var slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(50);
+            } catch(InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return "[slow]";
+        });
+        writer.write("x");
+        writer.splice(slow);
+        writer.write("y");
+        writer.finish();
+        assertEquals("x[slow]y", target.toString());
+    }
+
+    @Test
+    void failuresSurfaceWhenSpliced() throws Exception {
+        var failing = new CompletableFuture<String>();
+        writer.splice(failing);
+        failing.completeExceptionally(new IllegalStateException("render failed"));
+        assertThrows(IllegalStateException.class, writer::finish);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.macalester.conceptual.context;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import edu.macalester.conceptual.benchmark.Microbenchmark;
+
+/**
+ * Compares {@link PuzzleCodeCodec} to the <code>BigInteger</code>-based encoding PuzzleCode used
+ * previously. Run with <code>./gradlew puzzle-code-benchmark</code>.
+ */
+public class PuzzleCodeCodecBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+
+    public static void main(String[] args) {
+        var rand = new Random(0);
+        var codes = new ArrayList<PuzzleCode>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            codes.add(new PuzzleCode(
+                (byte) rand.nextInt(128),
+                (byte) rand.nextInt(128),
+                rand.nextLong(),
+                (byte) (i % 4 == 0 ? 1 : 0)));
+        }
+        var strings = codes.stream().map(PuzzleCodeCodec::encode).toList();
+
+        var next = new int[1];
+        Microbenchmark.run("legacy encode", BATCH_SIZE, () ->
+            LegacyPuzzleCodeFormat.toString(codes.get(next[0]++ % BATCH_SIZE)));
+        Microbenchmark.run("codec encode", BATCH_SIZE, () ->
+            PuzzleCodeCodec.encode(codes.get(next[0]++ % BATCH_SIZE)));
+        Microbenchmark.run("legacy decode", BATCH_SIZE, () -> {
+            try {
+                return LegacyPuzzleCodeFormat.parse(strings.get(next[0]++ % BATCH_SIZE));
+            } catch(InvalidPuzzleCodeException e) {
+                throw new AssertionError(e);
+            }
+        });
+        Microbenchmark.run("codec decode", BATCH_SIZE, () -> {
+            try {
+                return PuzzleCodeCodec.decode(strings.get(next[0]++ % BATCH_SIZE));
+            } catch(InvalidPuzzleCodeException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+}
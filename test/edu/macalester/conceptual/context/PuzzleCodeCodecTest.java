@@ -0,0 +1,80 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleCodeCodecTest {
+    @Test
+    void encodingMatchesLegacyFormat() {
+        for (var code : sampleCodes()) {
+            var encoded = PuzzleCodeCodec.encode(code);
+            assertEquals(LegacyPuzzleCodeFormat.toString(code), encoded);
+            assertEquals(code, outcome(() -> PuzzleCodeCodec.decode(encoded)));
+        }
+    }
+
+    @Test
+    void decodingMatchesLegacyFormat() {
+        var inputs = new ArrayList<>(List.of(
+            "", "-", "+", "++", "-+-", "+gjz0-n55f-diky-7qqo", "gjz0-n55f-+diky-7qqo",
+            "GJZ0N55FDIKY7QQO", "0000gjz0-n55f-diky-7qqo", "gjz0 n55f diky 7qqo",
+            "ｇｊｚ０-ｎ５５ｆ-ｄｉｋｙ-７ｑｑｏ",  // fullwidth, which Character.digit() understands
+            "zzzz-zzzz-zzzz-zzzz-zzz", "zzzz-zzzz-zzzz-zzzz-zzzz-zzzz-zzzz-zzzz",
+            "zzzz-zzzz-zzzz-zzzz-zzzz-zzzz-zzzz-zzz!"));
+
+        // Valid codes, and codes with typos
+        var rand = new Random(0);
+        for (var code : sampleCodes()) {
+            var encoded = PuzzleCodeCodec.encode(code);
+            inputs.add(encoded);
+            var typo = new StringBuilder(encoded);
+            int pos = rand.nextInt(typo.length());
+            typo.setCharAt(pos, Character.forDigit(rand.nextInt(36), 36));
+            inputs.add(typo.toString());
+            inputs.add(encoded + Character.forDigit(rand.nextInt(36), 36));
+        }
+
+        for (var input : inputs) {
+            assertEquals(outcome(() -> LegacyPuzzleCodeFormat.parse(input)),
+                outcome(() -> PuzzleCodeCodec.decode(input)),
+                input);
+        }
+    }
+
+    private static List<PuzzleCode> sampleCodes() {
+        var codes = new ArrayList<PuzzleCode>();
+        var rand = new Random(0);
+        for (long seed : new long[] { 0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE, 123456789L }) {
+            codes.add(new PuzzleCode((byte) 0, (byte) 0, seed));
+            codes.add(new PuzzleCode((byte) 127, (byte) -1, seed, (byte) 7));
+        }
+        for (int i = 0; i < 5000; i++) {
+            codes.add(new PuzzleCode(
+                (byte) rand.nextInt(128),
+                (byte) rand.nextInt(),
+                rand.nextInt(4) == 0 ? rand.nextInt(1000) : rand.nextLong(),
+                (byte) (rand.nextBoolean() ? 0 : rand.nextInt(8))));
+        }
+        return codes;
+    }
+
+    private interface Decoder {
+        PuzzleCode decode() throws Exception;
+    }
+
+    /**
+     * Either the decoded code or a description of the exception, for comparison.
+     */
+    private static Object outcome(Decoder decoder) {
+        try {
+            return decoder.decode();
+        } catch(Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+}
@@ -6,8 +6,12 @@ import org.junit.jupiter.api.function.Executable;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 import edu.macalester.conceptual.TestPuzzlePrinters;
 
@@ -36,6 +40,81 @@ class PuzzleContextTest {
         }
     }
 
+    @Test
+    void generatorFeaturesShouldSurvivePuzzleCodeRoundTrip() throws Exception {
+        var features = Set.of(GeneratorFeature.ALIAS_SAMPLING);
+        for(int i = 0; i < 100; i++) {
+            var original = PuzzleContext.generate((byte) i, (byte) (50 - i), features);
+            var recreated = PuzzleContext.fromPuzzleCode(original.getPuzzleCode());
+            assertTrue(recreated.hasFeature(GeneratorFeature.ALIAS_SAMPLING));
+            assertContextsEqual(original, recreated);
+        }
+
+        // Same code as before generator features existed
+        var legacy = new PuzzleContext(new PuzzleCode((byte) 3, (byte) 7, 123456789L));
+        assertEquals("gjz0-n55f-diky-7qqo", legacy.getPuzzleCode());
+        assertFalse(legacy.hasFeature(GeneratorFeature.ALIAS_SAMPLING));
+
+        var withFeature = new PuzzleContext(new PuzzleCode((byte) 3, (byte) 7, 123456789L, (byte) 1));
+        assertNotEquals(legacy.getPuzzleCode(), withFeature.getPuzzleCode());
+    }
+
+    @Test
+    void randomGeneratorDependsOnFeature() throws Exception {
+        long seed = 123456789L;
+        var legacy = new PuzzleContext(new PuzzleCode((byte) 3, (byte) 7, seed));
+        var mix = new PuzzleContext(new PuzzleCode((byte) 3, (byte) 7, seed,
+            GeneratorFeature.toBits(Set.of(GeneratorFeature.L64X128_RANDOM))));
+
+        assertEquals(expectedDraws(new Random(seed)), draws(legacy));
+        assertEquals(
+            expectedDraws(RandomGeneratorFactory.of("L64X128MixRandom").create(seed)),
+            draws(mix.cleanCopy()));
+        assertEquals(draws(mix.cleanCopy()), draws(PuzzleContext.fromPuzzleCode(mix.getPuzzleCode())));
+
+        mix.setOutput(TestPuzzlePrinters.silent());
+        mix.emitPuzzle(() ->
+            assertThrows(UnsupportedOperationException.class, () -> mix.getRandom().setSeed(0)));
+    }
+
+    @Test
+    void scopedIdentifiersResetBetweenRepetitions() throws Exception {
+        var scoped = PuzzleContext.generate((byte) 0, (byte) 0, Set.of(GeneratorFeature.SCOPED_IDENTIFIERS));
+        var unscoped = PuzzleContext.generate((byte) 0, (byte) 0);
+        for (var c : List.of(scoped, unscoped)) {
+            c.setOutput(TestPuzzlePrinters.silent());
+            c.emitPuzzle(() -> {
+                assertFalse(c.isIdentifierAlreadyUsed("fazz"));
+                c.useIdentifier("fazz");
+                c.section(() -> assertTrue(c.isIdentifierAlreadyUsed("fazz")));
+                c.resetSectionCounter();
+                assertEquals(c == unscoped, c.isIdentifierAlreadyUsed("fazz"));
+            });
+        }
+    }
+
+    private static List<Object> draws(PuzzleContext ctx) throws IOException {
+        var result = new ArrayList<>();
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        ctx.emitPuzzle(() -> result.addAll(draws(ctx.getRandom())));
+        return result;
+    }
+
+    private static List<Object> expectedDraws(RandomGenerator rand) {
+        rand.nextFloat();  // emitPuzzle() uses one float for the theme hue
+        return draws(rand);
+    }
+
+    private static List<Object> draws(RandomGenerator rand) {
+        var result = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            result.add(rand.nextInt(1000));
+            result.add(rand.nextDouble());
+            result.add(rand.nextBoolean());
+        }
+        return result;
+    }
+
     @Test
     void seedsAreCaseInsensitive() throws Exception {
         assertContextsEqual(
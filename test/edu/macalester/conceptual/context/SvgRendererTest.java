@@ -0,0 +1,50 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.List;
+
+import edu.macalester.graphics.Ellipse;
+import edu.macalester.graphics.GraphicsGroup;
+import edu.macalester.graphics.GraphicsText;
+import edu.macalester.graphics.Line;
+import edu.macalester.graphics.Path;
+import edu.macalester.graphics.Point;
+import edu.macalester.graphics.Rectangle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SvgRendererTest {
+    @Test
+    void rendersSupportedShapes() throws Exception {
+        var group = new GraphicsGroup();
+        var box = new Rectangle(10, 20, 30, 40);
+        box.setFillColor(Color.BLACK);
+        box.setStrokeColor(new Color(0x80c0c0c0, true));
+        group.add(box);
+        group.add(new Line(0, 0, 5.5, 7.25));
+        var arrow = new Path(List.of(new Point(0, 0), new Point(12, 6), new Point(0, 12)), true);
+        arrow.setAnchor(Point.ORIGIN);
+        arrow.setRotation(-90);
+        group.add(arrow, 3, 4);
+        group.add(new GraphicsText("a < b && c", 1, 2));
+
+        var svg = SvgRenderer.render(group);
+        assertTrue(svg.startsWith("<svg "), svg);
+        assertTrue(svg.contains(
+            "<rect x='0' y='0' width='30' height='40' fill='#000000' stroke='#c0c0c0'"
+            + " stroke-width='1' stroke-opacity='0.5' transform='translate(10 20)'/>"), svg);
+        assertTrue(svg.contains("<line x1='0' y1='0' x2='5.5' y2='7.25' fill='none'"), svg);
+        assertTrue(svg.contains("<polygon points='0,0 12,6 0,12'"), svg);
+        assertTrue(svg.contains("transform='translate(3 4) rotate(-90)'"), svg);
+        assertTrue(svg.contains(">a &lt; b &amp;&amp; c</text>"), svg);
+    }
+
+    @Test
+    void rejectsUnsupportedNodes() {
+        var group = new GraphicsGroup();
+        group.add(new Ellipse(0, 0, 10, 10));
+        assertThrows(SvgRenderer.UnsupportedGraphicsException.class, () -> SvgRenderer.render(group));
+    }
+}
@@ -0,0 +1,47 @@
+package edu.macalester.conceptual.context;
+
+import java.util.regex.Pattern;
+
+import edu.macalester.conceptual.benchmark.Microbenchmark;
+import edu.macalester.conceptual.context.TextFormatter.Style;
+
+/**
+ * Compares {@link TextFormatter} to the regex-based formatting it used previously.
+ * Run with <code>./gradlew text-format-benchmark</code>.
+ */
+public class TextFormatterBenchmark {
+    private static final String
+        PLAIN = "Consider the following code. What does it print? Be sure to show your work.",
+        STYLED = """
+            Suppose that `fazz` is an _int_ variable. Write a single *boolean* expression
+            that is true if `fazz < 3 && !(blep > fazz)` and `f(/*___expr___*/)` is not.""";
+
+    private static final TextFormatter formatter = new TextFormatter(
+        new Style("<code>", "</code>"),
+        new Style("<b>", "</b>"),
+        new Style("<i>", "</i>"),
+        new Style("<span class='placeholder'>", "</span>"));
+
+    private static final Pattern
+        CODE_DELIM        = Pattern.compile("`(?!\\s)(.+?)(?<!\\s)`"),
+        BOLD_DELIM        = Pattern.compile("\\*(?!\\s)(.+?)(?<!\\s)\\*"),
+        ITALICS_DELIM     = Pattern.compile("_(?!\\s)(.+?)(?<!\\s)_"),
+        PLACEHOLDER_DELIM = Pattern.compile("(?:/\\*)?___(?!\\s)(.+?)(?<!\\s)___(?:\\*/)?");
+
+    public static void main(String[] args) {
+        for (var text : new String[] { PLAIN, STYLED }) {
+            var label = text.substring(0, 12).replaceAll("\\s+", " ");
+            Microbenchmark.run("regex format:  " + label, 100_000, () -> legacyFormat(text));
+            Microbenchmark.run("scanner:       " + label, 100_000, () -> formatter.format(text));
+        }
+    }
+
+    private static String legacyFormat(String text) {
+        text = text.strip().replaceAll("\\s+", " ");
+        text = PLACEHOLDER_DELIM.matcher(text).replaceAll(m -> formatter.placeholder().wrap(m.group(1)));
+        text = CODE_DELIM.matcher(text).replaceAll(m -> formatter.code().wrap(m.group(1)));
+        text = BOLD_DELIM.matcher(text).replaceAll(m -> formatter.bold().wrap(m.group(1)));
+        text = ITALICS_DELIM.matcher(text).replaceAll(m -> formatter.italics().wrap(m.group(1)));
+        return text;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import edu.macalester.conceptual.context.TextFormatter.Style;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextFormatterTest {
+    private final TextFormatter formatter = new TextFormatter(
+        new Style("<c>", "</c>"),
+        new Style("<b>", "</b>"),
+        new Style("<i>", "</i>"),
+        new Style("<p>", "</p>"));
+
+    // Like ConsolePuzzlePrinter’s, with spaces inside the placeholder style
+    private final TextFormatter paddedFormatter = new TextFormatter(
+        new Style("[c", "c]"),
+        new Style("[b", "b]"),
+        new Style("[i", "i]"),
+        new Style("[p  ", "  p]"));
+
+    @Test
+    void examples() {
+        assertEquals(
+            "a <c>x * y</c> is <b>very</b> <i>nice</i> <c>f(<p>expr</p>)</c>",
+            formatter.format("  a `x * y`\n  is *very* _nice_ `f(/*___expr___*/)`  "));
+        assertEquals("* not bold * and _ not italic_", formatter.format("* not bold * and _ not italic_"));
+        assertEquals("<c><i>a</i></c>", formatter.format("`_a_`"));
+        assertEquals("x = <p>a</p>;\ny = ___\n___;", formatter.formatCodePlaceholders("x = ___a___;\ny = ___\n___;"));
+        assertEquals("<b>a <c>b</b> c</c>*", formatter.format("*a `b* c`*"));  // overlapping, as before
+        assertEquals("costs <c>$1 \\n</c>", formatter.format("costs `$1 \\n`"));
+        assertEquals("`a [p  `b  p]", paddedFormatter.format("`a ___`b___"));  // space before 2nd `
+    }
+
+    @Test
+    void stylesMustBeMaskable() {
+        for (var style : new Style[] {
+            new Style("", "</c>"), new Style("<c> ", "</c>"), new Style("<c_>", "</c>"), new Style("<c>", "</c>\n")
+        }) {
+            assertThrows(IllegalArgumentException.class, () ->
+                new TextFormatter(style, formatter.bold(), formatter.italics(), formatter.placeholder()));
+        }
+    }
+
+    @Test
+    void matchesPreviousImplementation() {
+        var rand = new Random(0);
+        String alphabet = "`*_/ \t\n\r\u2028ab$\\";
+        for (int n = 0; n < 50000; n++) {
+            var text = new StringBuilder();
+            for (int len = rand.nextInt(30); len > 0; len--) {
+                text.append(rand.nextInt(4) == 0
+                    ? alphabet.charAt(rand.nextInt(alphabet.length()))
+                    : alphabet.charAt(rand.nextInt(5)));
+            }
+            var input = text.toString();
+            for (var formatter : new TextFormatter[] { formatter, paddedFormatter }) {
+                assertEquals(
+                    outcome(() -> legacyFormat(formatter, input)),
+                    outcome(() -> formatter.format(input)),
+                    input);
+                assertEquals(
+                    outcome(() -> legacyFormatCodePlaceholders(formatter, input)),
+                    outcome(() -> formatter.formatCodePlaceholders(input)),
+                    input);
+            }
+        }
+    }
+
+    private static String outcome(Supplier<String> formatting) {
+        try {
+            return formatting.get();
+        } catch(RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+    // Previous regex-based implementation, one pass per style, except that it treated $ and \ in
+    // the text as replacement syntax
+    // –––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––––
+
+    private static final Pattern
+        CODE_DELIM        = inlineDelimited("`", "", ""),
+        BOLD_DELIM        = inlineDelimited("\\*", "", ""),
+        ITALICS_DELIM     = inlineDelimited("_", "", ""),
+        PLACEHOLDER_DELIM = inlineDelimited("___", "(?:/\\*)?", "(?:\\*/)?");
+
+    private static Pattern inlineDelimited(String delimiter, String prefix, String suffix) {
+        return Pattern.compile(prefix + delimiter + "(?!\\s)(.+?)(?<!\\s)" + delimiter + suffix);
+    }
+
+    private static String legacyFormat(TextFormatter formatter, String text) {
+        text = text.strip().replaceAll("\\s+", " ");
+        text = legacyFormatCodePlaceholders(formatter, text);
+        text = legacyFormat(CODE_DELIM, formatter.code(), text);
+        text = legacyFormat(BOLD_DELIM, formatter.bold(), text);
+        text = legacyFormat(ITALICS_DELIM, formatter.italics(), text);
+        return text;
+    }
+
+    private static String legacyFormatCodePlaceholders(TextFormatter formatter, String code) {
+        return legacyFormat(PLACEHOLDER_DELIM, formatter.placeholder(), code);
+    }
+
+    private static String legacyFormat(Pattern delimiter, Style style, String text) {
+        return delimiter.matcher(text).replaceAll(match ->
+            Matcher.quoteReplacement(style.wrap(match.group(1))));
+    }
+}
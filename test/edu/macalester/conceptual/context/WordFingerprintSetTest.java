@@ -0,0 +1,35 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordFingerprintSetTest {
+    @Test
+    void behavesLikeSetOfStrings() {
+        var rand = new Random(0);
+        var expected = new HashSet<String>();
+        var actual = new WordFingerprintSet();
+        for (int n = 0; n < 20000; n++) {
+            var word = Integer.toString(rand.nextInt(5000), 36);
+            assertEquals(expected.contains(word), actual.contains(word), word);
+            assertEquals(expected.add(word), actual.add(word), word);
+            assertEquals(expected.size(), actual.size());
+        }
+
+        actual.clear();
+        assertEquals(0, actual.size());
+        for (var word : expected) {
+            assertFalse(actual.contains(word), word);
+        }
+    }
+
+    @Test
+    void fingerprintsAreNeverEmptySlotMarker() {
+        assertNotEquals(0, WordFingerprintSet.fingerprint(""));
+        assertNotEquals(WordFingerprintSet.fingerprint("ab"), WordFingerprintSet.fingerprint("ba"));
+    }
+}
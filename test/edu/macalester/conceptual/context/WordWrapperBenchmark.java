@@ -0,0 +1,71 @@
+package edu.macalester.conceptual.context;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import edu.macalester.conceptual.PuzzleRegistry;
+import edu.macalester.conceptual.benchmark.Microbenchmark;
+
+/**
+ * Compares {@link WordWrapper} to the regex-based wrapping ConsolePuzzlePrinter used previously,
+ * replaying the exact output calls from a 100-puzzle console render (as with <code>--repeat
+ * 100</code>). Run with <code>./gradlew word-wrap-benchmark</code>.
+ */
+public class WordWrapperBenchmark {
+    private static final String PUZZLE_NAME = "bool";
+    private static final int REPEAT = 100;
+
+    public static void main(String[] args) {
+        ConsolePuzzlePrinter.disableGraphics();
+        var calls = recordConsoleRender(args.length > 0 ? args[0] : PUZZLE_NAME);
+
+        Microbenchmark.run("regex wrapping:  " + REPEAT + " puzzles", 20,
+            () -> replay(calls, LegacyWordWrapper::new));
+        Microbenchmark.run("scanner:         " + REPEAT + " puzzles", 20,
+            () -> replay(calls, WordWrapper::new));
+    }
+
+    private record PrintCall(String str, String indent, boolean wrap) { }
+
+    private static List<PrintCall> recordConsoleRender(String puzzleName) {
+        var descriptor = PuzzleRegistry.findByName(puzzleName);
+        var calls = new ArrayList<PrintCall>();
+        var nowhere = new PrintWriter(Writer.nullWriter());
+        var recorder = new WordWrapper(nowhere, 80) {
+            @Override
+            void print(String str, String indent, boolean wrap) {
+                calls.add(new PrintCall(str, indent, wrap));
+            }
+        };
+
+        for (int n = 0; n < REPEAT; n++) {
+            var ctx = PuzzleContext.generate(descriptor.id(), descriptor.goalDifficulty());
+            ctx.enableSolution();
+            ctx.setOutput(new ConsolePuzzlePrinter(nowhere, recorder));
+            var puzzle = descriptor.create();
+            try {
+                ctx.emitPuzzle(() -> puzzle.generate(ctx));
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return calls;
+    }
+
+    private static Object replay(
+        List<PrintCall> calls,
+        BiFunction<PrintWriter, Integer, WordWrapper> wrapperFactory
+    ) {
+        var out = new PrintWriter(Writer.nullWriter());
+        var wrapper = wrapperFactory.apply(out, 80);
+        for (var call : calls) {
+            wrapper.print(call.str(), call.indent(), call.wrap());
+        }
+        return wrapper;
+    }
+}
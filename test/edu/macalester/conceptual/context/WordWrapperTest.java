@@ -0,0 +1,49 @@
+package edu.macalester.conceptual.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordWrapperTest {
+    @Test
+    void wrapsAndIndents() {
+        var output = new StringWriter();
+        var wrapper = new WordWrapper(new PrintWriter(output), 12);
+        wrapper.print("one two three four\r\nfive  ", "> ", true);
+        wrapper.print("\n", "> ", true);
+        wrapper.print("\u001b[1mbold\u001b[22m six seven", "", true);
+        assertEquals(
+            "> one two\n> three four\n> five\n\u001b[1mbold\u001b[22m six\nseven",
+            output.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    void matchesPreviousImplementation() {
+        var rand = new Random(0);
+        String alphabet = " abc\n\r\u001b[1;m";
+        String[] indents = { "", "  ", "  │ " };
+        for (int n = 0; n < 2000; n++) {
+            int width = 4 + rand.nextInt(16);
+            var legacyOutput = new StringWriter();
+            var legacy = new LegacyWordWrapper(new PrintWriter(legacyOutput), width);
+            var newOutput = new StringWriter();
+            var wrapper = new WordWrapper(new PrintWriter(newOutput), width);
+
+            for (int call = rand.nextInt(10); call > 0; call--) {
+                var text = new StringBuilder();
+                for (int len = rand.nextInt(20); len > 0; len--) {
+                    text.append(alphabet.charAt(rand.nextInt(alphabet.length())));
+                }
+                var indent = indents[rand.nextInt(indents.length)];
+                boolean wrap = rand.nextInt(4) != 0;
+                legacy.print(text.toString(), indent, wrap);
+                wrapper.print(text.toString(), indent, wrap);
+            }
+            assertEquals(legacyOutput.toString(), newOutput.toString());
+        }
+    }
+}
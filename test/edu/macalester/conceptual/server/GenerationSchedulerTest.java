@@ -0,0 +1,153 @@
+package edu.macalester.conceptual.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.macalester.conceptual.server.GenerationScheduler.Priority.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationSchedulerTest {
+    private final GenerationScheduler scheduler = new GenerationScheduler(1, 3);
+
+    @Test
+    void solveRequestsJumpAheadOfGen() throws Exception {
+        var release = new CountDownLatch(1);
+        var order = new CopyOnWriteArrayList<String>();
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            var blocker = pool.submit(() -> scheduler.run((byte) 1, GEN, () -> {
+                release.await();
+                return null;
+            }));
+            awaitQueueDepth(0);
+
+            var gen = submit(pool, GEN, "gen", order);
+            awaitQueueDepth(1);
+            var solve = submit(pool, SOLVE, "solve", order);
+            awaitQueueDepth(2);
+
+            release.countDown();
+            for (var future : List.of(blocker, gen, solve)) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(List.of("solve", "gen"), order);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        var release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            pool.submit(() -> scheduler.run((byte) 1, GEN, () -> {
+                release.await();
+                return null;
+            }));
+            awaitQueueDepth(0);
+            for (int n = 1; n <= 3; n++) {
+                submit(pool, GEN, "queued", new CopyOnWriteArrayList<>());
+                awaitQueueDepth(n);
+            }
+
+            var error = assertThrows(GenerationScheduler.SaturatedException.class, () ->
+                scheduler.run((byte) 1, SOLVE, () -> "too many"));
+            assertTrue(error.retryAfterSeconds() >= 1);
+            release.countDown();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void expensiveTypesAreCappedWhileCheapOnesPassThem() throws Exception {
+        byte cheap = 1, expensive = 2;
+        var scheduler = new GenerationScheduler(4, 10);
+        scheduler.run(cheap, GEN, () -> sleep(1));
+        scheduler.run(expensive, GEN, () -> sleep(100));  // limit: ceil(4 * 1/100) = 1
+        assertTrue(
+            metrics(scheduler).contains("generation_concurrency_limit{puzzle=\"expensive\"} 1\n"),
+            metrics(scheduler));
+
+        var release = new CountDownLatch(1);
+        var expensiveRunning = new AtomicInteger();
+        var maxExpensiveRunning = new AtomicInteger();
+        ExecutorService pool = Executors.newCachedThreadPool();
+        try {
+            var futures = new CopyOnWriteArrayList<Future<?>>();
+            for (int n = 0; n < 2; n++) {
+                futures.add(pool.submit(() -> scheduler.run(expensive, GEN, () -> {
+                    maxExpensiveRunning.accumulateAndGet(expensiveRunning.incrementAndGet(), Math::max);
+                    release.await();
+                    return expensiveRunning.decrementAndGet();
+                })));
+            }
+            awaitState(scheduler, 1, 1);  // second expensive request waits at its type’s limit...
+
+            for (int n = 0; n < 2; n++) {
+                futures.add(pool.submit(() -> scheduler.run(cheap, GEN, () -> release.await(10, TimeUnit.SECONDS))));
+            }
+            awaitState(scheduler, 3, 1);  // ...while later cheap ones are admitted past it
+
+            release.countDown();
+            for (var future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1, maxExpensiveRunning.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Future<?> submit(
+        ExecutorService pool,
+        GenerationScheduler.Priority priority,
+        String label,
+        List<String> order
+    ) {
+        return pool.submit(() -> scheduler.run((byte) 2, priority, () -> order.add(label)));
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        awaitState(scheduler, 1, depth);
+    }
+
+    /**
+     * Waits until the given numbers of generations are running and queued, failing instead of
+     * hanging if that never happens.
+     */
+    private static void awaitState(GenerationScheduler scheduler, int running, int queued)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String metrics;
+        while (!(metrics = metrics(scheduler)).contains("generation_queue_depth " + queued + "\n")
+            || !metrics.contains("generation_running " + running + "\n")) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for " + running + " running, " + queued + " queued; metrics:\n"
+                    + metrics);
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private static String metrics(GenerationScheduler scheduler) {
+        var out = new StringBuilder();
+        scheduler.appendMetrics(out, Map.of((byte) 1, "cheap", (byte) 2, "expensive"));
+        return out.toString();
+    }
+
+    private static Object sleep(long millis) throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(millis);
+        return null;
+    }
+}
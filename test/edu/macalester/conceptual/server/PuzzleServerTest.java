@@ -0,0 +1,115 @@
+package edu.macalester.conceptual.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Set;
+
+import edu.macalester.conceptual.GeneratorVersion;
+import edu.macalester.conceptual.PuzzleRegistry;
+import edu.macalester.conceptual.context.PuzzleContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleServerTest {
+    private static final String
+        LOOP_CODE = "2mgg-4Ldu-2mq7-Ld3",
+        VARS_CODE = "gewc-fit8-6tgL-hatp",
+        IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final GeneratorVersion
+        CLEAN = new GeneratorVersion("abc1234", "abc1234", "2026-01-01", false),
+        OTHER_COMMIT = new GeneratorVersion("def5678", "def5678", "2026-01-02", false),
+        DIRTY = new GeneratorVersion("abc1234", "abc1234", "2026-01-01", true);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PuzzleServer server;
+
+    @Test
+    void etagDependsOnExactlyTheRequestAndCommit() throws Exception {
+        var etag = RenderRequest.of(LOOP_CODE, false, null).etag(CLEAN);
+        assertEquals(etag, RenderRequest.of(LOOP_CODE, false, null).etag(CLEAN));
+        assertEquals(etag, RenderRequest.of(LOOP_CODE.toUpperCase().replace("-", ""), false, null).etag(CLEAN));
+        assertEquals(
+            RenderRequest.of(LOOP_CODE, false, Set.of(1, 2)).etag(CLEAN),
+            RenderRequest.of(LOOP_CODE, false, Set.of(2, 1)).etag(CLEAN));
+
+        assertNotEquals(etag, RenderRequest.of(VARS_CODE, false, null).etag(CLEAN));
+        assertNotEquals(etag, RenderRequest.of(LOOP_CODE, true, null).etag(CLEAN));
+        assertNotEquals(etag, RenderRequest.of(LOOP_CODE, false, Set.of(1)).etag(CLEAN));
+        assertNotEquals(etag, RenderRequest.of(LOOP_CODE, false, null).etag(OTHER_COMMIT));
+    }
+
+    @Test
+    void successfulResponsesAreCacheableUnderETag() throws Exception {
+        startServer(CLEAN);
+        try {
+            var response = get("/gen/" + LOOP_CODE, null);
+            assertEquals(200, response.statusCode());
+            var etag = response.headers().firstValue("ETag").orElseThrow();
+            assertEquals(RenderRequest.of(LOOP_CODE, false, null).etag(CLEAN), etag);
+            assertEquals(IMMUTABLE, response.headers().firstValue("Cache-Control").orElse(null));
+
+            for (var ifNoneMatch : new String[] { etag, "W/" + etag, "*", "\"other\", " + etag }) {
+                var revalidated = get("/gen/" + LOOP_CODE, ifNoneMatch);
+                assertEquals(304, revalidated.statusCode(), ifNoneMatch);
+                assertEquals(etag, revalidated.headers().firstValue("ETag").orElse(null));
+            }
+
+            assertEquals(200, get("/gen/" + LOOP_CODE, "\"other\"").statusCode());
+            assertEquals(200, get("/solve/" + LOOP_CODE, etag).statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void dirtyBuildsAreNeverCached() throws Exception {
+        startServer(DIRTY);
+        try {
+            var etag = RenderRequest.of(LOOP_CODE, false, null).etag(DIRTY);
+            var response = get("/gen/" + LOOP_CODE, etag);
+            assertEquals(200, response.statusCode());
+            assertEquals("no-store", response.headers().firstValue("Cache-Control").orElse(null));
+            assertTrue(response.headers().firstValue("ETag").isEmpty());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void errorsAreNeverCached() throws Exception {
+        startServer(CLEAN);
+        try {
+            // Illegal difficulty is only detected during rendering, after the ETag is known
+            var loop = PuzzleRegistry.findByName("loop");
+            var badDifficultyCode = PuzzleContext.generate(loop.id(), (byte) (loop.maxDifficulty() + 1))
+                .getPuzzleCode();
+            for (var path : new String[] {
+                "/gen/not-a-code", "/gen/" + LOOP_CODE + "?parts=x", "/nope", "/solve/" + badDifficultyCode
+            }) {
+                var response = get(path, null);
+                assertTrue(response.statusCode() >= 400, path);
+                assertEquals("no-store", response.headers().firstValue("Cache-Control").orElse(null), path);
+                assertTrue(response.headers().firstValue("ETag").isEmpty(), path);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void startServer(GeneratorVersion version) throws Exception {
+        server = new PuzzleServer(0, 1, version);
+        server.start();
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
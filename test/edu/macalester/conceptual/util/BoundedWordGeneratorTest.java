@@ -0,0 +1,62 @@
+package edu.macalester.conceptual.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import edu.macalester.conceptual.TestPuzzlePrinters;
+import edu.macalester.conceptual.context.PuzzleContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedWordGeneratorTest {
+    // Every syllable has exactly one "b", so counting them counts syllables
+    private final AtomicInteger relaxations = new AtomicInteger();
+    private final BoundedWordGenerator generator = new BoundedWordGenerator(
+        choices("b"), choices("a", "oo"), choices("", "k", "rst"), relaxations::incrementAndGet);
+
+    @Test
+    void unboundedWordsHaveAtMostTwoSyllables() throws Exception {
+        var ctx = PuzzleContext.generate((byte) 0, (byte) 0);
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        ctx.emitPuzzle(() -> {
+            for (int i = 0; i < 5000; i++) {
+                var word = generator.word(ctx, 1, Integer.MAX_VALUE, (c, w) -> false);
+                assertTrue(syllables(word) <= 2, word);
+            }
+        });
+        assertEquals(0, relaxations.get());
+    }
+
+    @Test
+    void thirdSyllableOnlyAfterRelaxing() throws Exception {
+        var ctx = PuzzleContext.generate((byte) 0, (byte) 0);
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        ctx.emitPuzzle(() -> {
+            var word = generator.word(ctx, 1, Integer.MAX_VALUE, (c, w) -> syllables(w) < 3);
+            assertEquals(3, syllables(word), word);
+        });
+        assertTrue(relaxations.get() > 0);
+    }
+
+    @Test
+    void givesUpWhenEveryWordIsRejected() throws Exception {
+        var ctx = PuzzleContext.generate((byte) 0, (byte) 0);
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        ctx.emitPuzzle(() ->
+            assertThrows(IllegalStateException.class, () ->
+                generator.word(ctx, 1, Integer.MAX_VALUE, (c, w) -> true)));
+    }
+
+    private static WeightedChoices<String> choices(String... strings) {
+        var choices = new WeightedChoices<String>();
+        for (var str : strings) {
+            choices.add(str, 1);
+        }
+        return choices;
+    }
+
+    private static int syllables(String word) {
+        return (int) word.chars().filter(c -> c == 'b').count();
+    }
+}
@@ -0,0 +1,50 @@
+package edu.macalester.conceptual.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LshIndexTest {
+    private final LshIndex index = new LshIndex(32, 4);
+
+    private long[] signatureOfRange(long start, long end) {
+        return MinHash.signature(LongStream.range(start, end).toArray(), index.signatureLength());
+    }
+
+    @Test
+    void similarityEstimatesJaccardIndex() {
+        // [0,100) and [10,110) share 90 of 110 elements
+        double similarity = MinHash.similarity(signatureOfRange(0, 100), signatureOfRange(10, 110));
+        assertEquals(90 / 110.0, similarity, 0.15);
+        assertEquals(1.0, MinHash.similarity(signatureOfRange(0, 100), signatureOfRange(0, 100)));
+        assertTrue(MinHash.similarity(signatureOfRange(0, 100), signatureOfRange(100, 200)) < 0.1);
+    }
+
+    @Test
+    void findsNearDuplicates() {
+        int first = index.add(signatureOfRange(0, 100));
+        int second = index.add(signatureOfRange(1000, 1100));
+        assertEquals(2, index.size());
+
+        assertEquals(first, index.findSimilar(signatureOfRange(0, 100), 0.8));
+        assertEquals(first, index.findSimilar(signatureOfRange(2, 100), 0.8));
+        assertEquals(second, index.findSimilar(signatureOfRange(1000, 1099), 0.8));
+    }
+
+    @Test
+    void ignoresDissimilarSignatures() {
+        for (int i = 0; i < 50; i++) {
+            index.add(signatureOfRange(i * 1000, i * 1000 + 100));
+        }
+        assertEquals(-1, index.findSimilar(signatureOfRange(500, 600), 0.8));
+        assertEquals(-1, index.findSimilar(signatureOfRange(0, 50), 0.8));  // Jaccard index 0.5
+    }
+
+    @Test
+    void rejectsWrongSignatureLength() {
+        assertThrows(IllegalArgumentException.class, () -> index.add(new long[3]));
+        assertThrows(IllegalArgumentException.class, () -> index.findSimilar(new long[3], 0.8));
+    }
+}
@@ -0,0 +1,81 @@
+package edu.macalester.conceptual.util;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("UnstableApiUsage")
+class MappedBloomFilterTest {
+    @Test
+    void matchesGuavaForProhibitedWordsFile() throws IOException {
+        var file = Path.of("res/nonsense-prohibited.bloom");
+        BloomFilter<CharSequence> guava;
+        try (var input = Files.newInputStream(file)) {
+            guava = BloomFilter.readFrom(input, Funnels.unencodedCharsFunnel());
+        }
+        var mapped = MappedBloomFilter.fromFile(file);
+
+        int found = 0;
+        var rand = new Random(0);
+        for (var word : new String[] { "if", "instanceof", "cat", "dog", "blep", "fazz", "" }) {
+            assertEquals(guava.mightContain(word), mapped.mightContain(word), word);
+        }
+        for (int n = 0; n < 100_000; n++) {
+            var word = randomWord(rand, 2 + rand.nextInt(10));
+            assertEquals(guava.mightContain(word), mapped.mightContain(word), word);
+            if (mapped.mightContain(word)) {
+                found++;
+            }
+        }
+        assertTrue(found > 1000, "Expected some positive results; got " + found);
+    }
+
+    @Test
+    void matchesGuavaForVariousSizes() throws IOException {
+        var rand = new Random(1);
+        for (int size : new int[] { 1, 10, 1000 }) {
+            for (double fpp : new double[] { 0.3, 0.01, 0.0001 }) {
+                var guava = BloomFilter.create(Funnels.unencodedCharsFunnel(), size, fpp);
+                for (int n = 0; n < size; n++) {
+                    guava.put(randomWord(rand, 1 + rand.nextInt(20)));
+                }
+                var serialized = new ByteArrayOutputStream();
+                guava.writeTo(serialized);
+                var mapped = new MappedBloomFilter(ByteBuffer.wrap(serialized.toByteArray()));
+
+                for (int n = 0; n < 10_000; n++) {
+                    // Include non-ASCII, to check that all 16 bits of each char are hashed
+                    var word = rand.nextInt(10) == 0
+                        ? "é中" + randomWord(rand, rand.nextInt(10))
+                        : randomWord(rand, 1 + rand.nextInt(20));
+                    assertEquals(guava.mightContain(word), mapped.mightContain(word), word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedFiles() {
+        assertThrows(IOException.class, () -> new MappedBloomFilter(ByteBuffer.wrap(new byte[] { 1, 7 })));
+        assertThrows(IOException.class, () -> new MappedBloomFilter(ByteBuffer.wrap(new byte[] { 0, 7, 0, 0, 0, 0 })));
+        assertThrows(IOException.class, () -> new MappedBloomFilter(ByteBuffer.wrap(new byte[] { 1, 7, 0, 0, 0, 2, 0 })));
+    }
+
+    private static String randomWord(Random rand, int length) {
+        var word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + rand.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
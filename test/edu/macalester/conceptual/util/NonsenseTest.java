@@ -1,17 +1,21 @@
 package edu.macalester.conceptual.util;
 
 import java.io.PrintWriter;
+import java.util.HashSet;
 
 import org.junit.jupiter.api.Test;
 
 import edu.macalester.conceptual.TestPuzzlePrinters;
 import edu.macalester.conceptual.context.ConsolePuzzlePrinter;
+import edu.macalester.conceptual.context.GeneratorFeature;
 import edu.macalester.conceptual.context.InvalidPuzzleCodeException;
 import edu.macalester.conceptual.context.PuzzleContext;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class NonsenseTest {
+    private static final String BOUNDED_WORDS_CODE = "25ru-nz9v-9be1-kx7w-ji";
+
     @Test
     void word() throws Exception {
         var ctx = PuzzleContext.fromPuzzleCode("gewc-fit8-6tgL-hatp");
@@ -28,4 +32,39 @@ class NonsenseTest {
             }
         });
     }
+
+    @Test
+    void boundedWordsStayInRange() throws Exception {
+        // Words only exceed the range once it runs out, which 2000 names come nowhere near
+        var ctx = PuzzleContext.fromPuzzleCode(BOUNDED_WORDS_CODE);
+        assertTrue(ctx.hasFeature(GeneratorFeature.BOUNDED_WORDS));
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        long relaxationsBefore = Nonsense.wordStats().lengthRelaxations();
+        ctx.emitPuzzle(() -> {
+            var seen = new HashSet<String>();
+            for (int i = 0; i < 2000; i++) {
+                var name = Nonsense.words(ctx, Nonsense.NameFormat.LOWER_CAMEL_CASE, 3, 6, 4);
+                assertTrue(name.length() >= 4, name);
+                for (var word : name.split("(?=[A-Z])")) {
+                    assertTrue(word.length() >= 3 && word.length() <= 6, word);
+                    assertTrue(seen.add(word.toLowerCase()), "duplicate word " + word);
+                }
+            }
+        });
+        assertEquals(relaxationsBefore, Nonsense.wordStats().lengthRelaxations());
+    }
+
+    @Test
+    void boundedWordsRelaxLengthWhenRangeRunsOut() throws Exception {
+        var ctx = PuzzleContext.fromPuzzleCode(BOUNDED_WORDS_CODE);
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        long relaxationsBefore = Nonsense.wordStats().lengthRelaxations();  // stats are global
+        ctx.emitPuzzle(() -> {
+            // There are far fewer than 3000 unused 1–2 letter words
+            for (int i = 0; i < 3000; i++) {
+                Nonsense.words(ctx, Nonsense.NameFormat.LOWER_CAMEL_CASE, 1, 2, 1);
+            }
+        });
+        assertTrue(Nonsense.wordStats().lengthRelaxations() > relaxationsBefore);
+    }
 }
@@ -0,0 +1,150 @@
+package edu.macalester.conceptual.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import edu.macalester.conceptual.TestPuzzlePrinters;
+import edu.macalester.conceptual.context.PuzzleContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomnessTest {
+    // The allocation-free variants must consume random numbers exactly as the general ones do, or
+    // existing puzzle codes would generate different puzzles
+
+    @Test
+    void fixedArityChoicesMatchVarargs() throws Exception {
+        assertSameDraws(
+            ctx -> Randomness.chooseConst(ctx, new String[] { "a", "b" }),
+            ctx -> Randomness.chooseConst(ctx, "a", "b"));
+        assertSameDraws(
+            ctx -> Randomness.chooseConst(ctx, new String[] { "a", "b", "c" }),
+            ctx -> Randomness.chooseConst(ctx, "a", "b", "c"));
+        assertSameDraws(
+            ctx -> Randomness.chooseConst(ctx, new String[] { "a", "b", "c", "d" }),
+            ctx -> Randomness.chooseConst(ctx, "a", "b", "c", "d"));
+        assertSameDraws(
+            ctx -> Randomness.chooseConst(ctx, new Integer[] { 3, 5, 7 }),
+            ctx -> Randomness.chooseConst(ctx, 3, 5, 7));
+        assertSameDraws(
+            ctx -> Randomness.chooseConst(ctx, new Integer[] { 3, 5, 7 }),
+            ctx -> new int[] { 3, 5, 7 }[Randomness.chooseIndex(ctx, 3)]);
+        assertSameDraws(
+            ctx -> Randomness.choose(ctx, suppliers(List.of(() -> "a", () -> "b"))),
+            ctx -> Randomness.choose(ctx, () -> "a", () -> "b"));
+        assertSameDraws(
+            ctx -> Randomness.choose(ctx, suppliers(List.of(() -> "a", () -> "b", () -> "c"))),
+            ctx -> Randomness.choose(ctx, () -> "a", () -> "b", () -> "c"));
+        assertSameDraws(
+            whichRan(2, (ctx, choices) -> Randomness.choose(ctx, choices)),
+            whichRan(2, (ctx, choices) -> Randomness.choose(ctx, choices[0], choices[1])));
+        assertSameDraws(
+            whichRan(3, (ctx, choices) -> Randomness.choose(ctx, choices)),
+            whichRan(3, (ctx, choices) -> Randomness.choose(ctx, choices[0], choices[1], choices[2])));
+    }
+
+    @Test
+    void probabilityChoicesMatchClosureVersion() throws Exception {
+        for (double prob : new double[] { 0, 0.3, 0.7, 1 }) {
+            assertSameDraws(
+                ctx -> Randomness.chooseWithProb(ctx, prob, () -> 0, () -> 1),
+                ctx -> Randomness.chooseWithProb(ctx, prob, 0, 1));
+            assertSameDraws(
+                ctx -> Randomness.chooseWithProb(ctx, prob, () -> "x", () -> "y"),
+                ctx -> Randomness.chooseWithProb(ctx, prob, "x", "y"));
+            assertSameDraws(
+                ctx -> Randomness.chooseWithProb(ctx, prob, () -> true, () -> false),
+                ctx -> Randomness.chance(ctx, prob));
+        }
+    }
+
+    @Test
+    void decksMatchLegacyDeck() throws Exception {
+        var cards = List.of(10, 11, 12, 13, 14, 15, 16);
+        var legacyDeck = new ArrayList<Integer>();
+        assertSameDraws(
+            ctx -> {
+                // ChoiceDeck.draw() as it was before it used an index cursor
+                if (legacyDeck.isEmpty()) {
+                    legacyDeck.addAll(cards);
+                    Collections.shuffle(legacyDeck, ctx.getRandom());
+                }
+                return legacyDeck.remove(0);
+            },
+            drawFrom(ctx -> new ChoiceDeck<>(ctx, cards)::draw));
+        assertSameDraws(
+            drawFrom(ctx -> new ChoiceDeck<>(ctx, cards)::draw),
+            drawFrom(ctx -> new IntChoiceDeck(ctx, 10, 11, 12, 13, 14, 15, 16)::draw));
+        assertSameDraws(
+            drawFrom(ctx -> new ChoiceDeck<>(ctx, List.of(0, 1, 2, 3, 4))::draw),
+            drawFrom(ctx -> IntChoiceDeck.range(ctx, 5)::draw));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<String>[] suppliers(List<Supplier<String>> suppliers) {
+        return suppliers.toArray(Supplier[]::new);
+    }
+
+    /**
+     * Makes the given number of Runnables that each record their index, passes them to the given
+     * choice, and returns the index of the one it ran.
+     */
+    private static Function<PuzzleContext, Object> whichRan(
+        int count,
+        BiConsumer<PuzzleContext, Runnable[]> choice
+    ) {
+        return ctx -> {
+            var ran = new int[] { -1 };
+            var choices = new Runnable[count];
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                choices[i] = () -> ran[0] = index;
+            }
+            choice.accept(ctx, choices);
+            return ran[0];
+        };
+    }
+
+    /**
+     * Creates the deck on the first draw, and draws from the same deck after that.
+     */
+    private static Function<PuzzleContext, Object> drawFrom(
+        Function<PuzzleContext, Supplier<Object>> deckFactory
+    ) {
+        var deck = new ArrayList<Supplier<Object>>(1);
+        return ctx -> {
+            if (deck.isEmpty()) {
+                deck.add(deckFactory.apply(ctx));
+            }
+            return deck.get(0).get();
+        };
+    }
+
+    private static void assertSameDraws(
+        Function<PuzzleContext, Object> expected,
+        Function<PuzzleContext, Object> actual
+    ) throws Exception {
+        var ctx = PuzzleContext.generate((byte) 0, (byte) 0);
+        assertEquals(draws(ctx, expected), draws(ctx.cleanCopy(), actual));
+    }
+
+    private static List<Object> draws(PuzzleContext ctx, Function<PuzzleContext, Object> draw)
+        throws Exception
+    {
+        var results = new ArrayList<>();
+        ctx.setOutput(TestPuzzlePrinters.silent());
+        ctx.emitPuzzle(() -> {
+            for (int i = 0; i < 200; i++) {
+                results.add(draw.apply(ctx));
+            }
+            results.add(ctx.getRandom().nextLong());  // same amount of randomness consumed?
+        });
+        return results;
+    }
+}
@@ -0,0 +1,75 @@
+package edu.macalester.conceptual.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void concurrentRequestsForSameKeyShareOneComputation() throws Exception {
+        int callers = 8;
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var computations = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            var results = new ArrayList<Future<String>>();
+            results.add(pool.submit(() -> flight.run("key", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "result";
+            })));
+            started.await();
+
+            for (int n = 1; n < callers; n++) {
+                results.add(pool.submit(() -> flight.run("key", () -> {
+                    computations.incrementAndGet();
+                    return "duplicate computation";
+                })));
+            }
+            while (flight.coalescedCount() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (var result : results) {
+                assertEquals("result", result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, flight.executionCount());
+            assertEquals(callers - 1, flight.coalescedCount());
+            assertEquals(0, flight.inFlightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sequentialRequestsAreNotCached() throws Exception {
+        var computations = new AtomicInteger();
+        assertEquals("1", flight.run("key", () -> String.valueOf(computations.incrementAndGet())));
+        assertEquals("2", flight.run("key", () -> String.valueOf(computations.incrementAndGet())));
+        assertEquals(0, flight.coalescedCount());
+    }
+
+    @Test
+    void failuresPropagateAndDoNotLinger() throws Exception {
+        assertThrows(IllegalStateException.class, () ->
+            flight.run("key", () -> {
+                throw new IllegalStateException("oops");
+            }));
+        assertEquals("recovered", flight.run("key", () -> "recovered"));
+    }
+}
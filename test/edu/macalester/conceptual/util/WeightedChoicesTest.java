@@ -0,0 +1,122 @@
+package edu.macalester.conceptual.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import edu.macalester.conceptual.TestPuzzlePrinters;
+import edu.macalester.conceptual.context.GeneratorFeature;
+import edu.macalester.conceptual.context.PuzzleContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedChoicesTest {
+    @Test
+    void aliasTableGivesExactProbabilities() {
+        var rand = new Random(0);
+        for (int n = 0; n < 200; n++) {
+            int size = 1 + rand.nextInt(12);
+            var values = new Object[size];
+            var weights = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = i;
+                weights[i] = rand.nextInt(4) == 0 ? 0 : rand.nextInt(20);
+            }
+            weights[rand.nextInt(size)]++;  // at least one nonzero weight
+
+            // Each choice should cover exactly weight × size of the table’s range
+            var table = new WeightedChoices.AliasTable(values, weights);
+            var counts = new long[size];
+            for (long r = 0; r < table.range(); r++) {
+                counts[table.index(r)]++;
+            }
+            for (int i = 0; i < size; i++) {
+                assertEquals(weights[i] * size, counts[i]);
+            }
+        }
+    }
+
+    @Test
+    void chooseWorksWithAndWithoutAliasSampling() throws Exception {
+        var choices = new WeightedChoices<String>();
+        choices.add("a", 1);
+        choices.add("b", 0);
+        choices.add("c", 3);
+
+        // The legacy linear scan gives the first choice one extra unit of weight (and the last one
+        // less), which existing puzzle codes depend on; the alias table uses the exact weights.
+        var expectedCounts = Map.of(
+            Set.<GeneratorFeature>of(), 2000,
+            Set.of(GeneratorFeature.ALIAS_SAMPLING), 1000);
+        for (var features : expectedCounts.keySet()) {
+            var ctx = PuzzleContext.generate((byte) 0, (byte) 0, features);
+            ctx.setOutput(TestPuzzlePrinters.silent());
+            var counts = new int[3];
+            ctx.emitPuzzle(() -> {
+                for (int n = 0; n < 4000; n++) {
+                    counts[choices.choose(ctx).charAt(0) - 'a']++;
+                }
+            });
+            assertEquals(0, counts[1]);
+            assertEquals(expectedCounts.get(features), counts[0], 100);
+        }
+    }
+
+    @Test
+    void compiledTablesMatchTextTables() throws Exception {
+        for (var table : List.of("onsets", "nuclei", "codas")) {
+            var source = Files.readAllBytes(Path.of("res/syllable-parts", table));
+            var text = WeightedChoices.parseText(source);
+
+            var binary = new ByteArrayOutputStream();
+            CompiledChoiceTable.write(text, source, binary);
+            assertSameChoices(text, CompiledChoiceTable.read(new ByteArrayInputStream(binary.toByteArray())));
+            assertEquals(
+                CompiledChoiceTable.checksum(source),
+                CompiledChoiceTable.sourceChecksum(new ByteArrayInputStream(binary.toByteArray())));
+        }
+
+        var source = "a 1\n".getBytes(StandardCharsets.UTF_8);
+        var binary = new ByteArrayOutputStream();
+        CompiledChoiceTable.write(WeightedChoices.parseText(source), source, binary);
+        var truncated = Arrays.copyOf(binary.toByteArray(), binary.size() - 1);
+        assertThrows(IOException.class, () ->
+            CompiledChoiceTable.read(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void compiledTablesOnClasspathAreUpToDate() throws Exception {
+        // The loader trusts compiled tables, so catch any build that leaves a stale one behind
+        for (var table : List.of("onsets", "nuclei", "codas")) {
+            var resPath = "syllable-parts/" + table;
+            try (var compiled = getClass().getClassLoader().getResourceAsStream(resPath + CompiledChoiceTable.SUFFIX)) {
+                if (compiled == null) {
+                    continue;  // not compiled; the loader reads the text
+                }
+                var source = Files.readAllBytes(Path.of("res", resPath));
+                assertEquals(
+                    CompiledChoiceTable.checksum(source),
+                    CompiledChoiceTable.sourceChecksum(compiled),
+                    "stale compiled table for " + resPath + "; rebuild with Gradle");
+            }
+        }
+    }
+
+    private static void assertSameChoices(WeightedChoices<String> expected, WeightedChoices<String> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.choice(i), actual.choice(i));
+            assertEquals(expected.weight(i), actual.weight(i));
+        }
+    }
+}